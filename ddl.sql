@@ -50,36 +50,205 @@ ALTER TABLE hr_puskesmas.employees ADD COLUMN IF NOT EXISTS profile_photo_path V
 
 -- ============================================
 -- Internal Messages Table (delta update)
+-- Dipartisi per bulan pada created_at; partisi dibuat / diarsipkan oleh MessagePartitionService.
+-- PK harus memuat kolom partisi, jadi reply_to_id tidak lagi punya foreign key.
 -- ============================================
 CREATE TABLE IF NOT EXISTS hr_puskesmas.internal_messages (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     sender_id BIGINT NOT NULL REFERENCES hr_puskesmas.employees(id) ON DELETE CASCADE,
     receiver_id BIGINT NOT NULL REFERENCES hr_puskesmas.employees(id) ON DELETE CASCADE,
     subject VARCHAR(500) NOT NULL,
     body TEXT NOT NULL,
-    reply_to_id BIGINT REFERENCES hr_puskesmas.internal_messages(id) ON DELETE SET NULL,
+    reply_to_id BIGINT,
     thread_id BIGINT,
+    batch_id BIGINT,
     attachment_path VARCHAR(500),
     attachment_name VARCHAR(255),
     attachment_type VARCHAR(120),
     attachment_size BIGINT,
     is_read BOOLEAN NOT NULL DEFAULT FALSE,
-    created_at TIMESTAMP NOT NULL DEFAULT NOW()
-);
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Konversi tabel lama (non-partisi) ke tabel partisi (delta update).
+-- Data disalin apa adanya; sequence id tetap melanjutkan nilai terakhir.
+DO $$
+DECLARE
+    old_seq TEXT;
+    old_is_identity BOOLEAN;
+    cols TEXT;
+    first_month DATE;
+    m DATE;
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+        WHERE n.nspname = 'hr_puskesmas' AND c.relname = 'internal_messages' AND c.relkind = 'r'
+    ) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE hr_puskesmas.internal_messages RENAME TO internal_messages_unpartitioned;
+    old_seq := pg_get_serial_sequence('hr_puskesmas.internal_messages_unpartitioned', 'id');
+    SELECT is_identity = 'YES' INTO old_is_identity FROM information_schema.columns
+    WHERE table_schema = 'hr_puskesmas' AND table_name = 'internal_messages_unpartitioned' AND column_name = 'id';
+
+    CREATE TABLE hr_puskesmas.internal_messages
+        (LIKE hr_puskesmas.internal_messages_unpartitioned INCLUDING DEFAULTS INCLUDING IDENTITY INCLUDING GENERATED)
+        PARTITION BY RANGE (created_at);
+    ALTER TABLE hr_puskesmas.internal_messages ADD PRIMARY KEY (id, created_at);
+    ALTER TABLE hr_puskesmas.internal_messages
+        ADD FOREIGN KEY (sender_id) REFERENCES hr_puskesmas.employees(id) ON DELETE CASCADE,
+        ADD FOREIGN KEY (receiver_id) REFERENCES hr_puskesmas.employees(id) ON DELETE CASCADE;
+    IF old_seq IS NOT NULL AND NOT old_is_identity THEN
+        -- BIGSERIAL: default masih memakai sequence lama, pindahkan kepemilikannya sebelum tabel lama di-drop
+        EXECUTE format('ALTER SEQUENCE %s OWNED BY hr_puskesmas.internal_messages.id', old_seq);
+    END IF;
+
+    SELECT date_trunc('month', COALESCE(MIN(created_at), NOW()))::date INTO first_month
+    FROM hr_puskesmas.internal_messages_unpartitioned;
+    m := first_month;
+    WHILE m <= date_trunc('month', NOW())::date LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS hr_puskesmas.%I PARTITION OF hr_puskesmas.internal_messages'
+                       ' FOR VALUES FROM (%L) TO (%L)',
+                       'internal_messages_p' || to_char(m, 'YYYY_MM'), m, (m + INTERVAL '1 month')::date);
+        m := (m + INTERVAL '1 month')::date;
+    END LOOP;
+
+    SELECT string_agg(quote_ident(column_name), ', ' ORDER BY ordinal_position) INTO cols
+    FROM information_schema.columns
+    WHERE table_schema = 'hr_puskesmas' AND table_name = 'internal_messages_unpartitioned' AND is_generated = 'NEVER';
+    EXECUTE format('INSERT INTO hr_puskesmas.internal_messages (%s) SELECT %s FROM hr_puskesmas.internal_messages_unpartitioned',
+                   cols, cols);
+    PERFORM setval(pg_get_serial_sequence('hr_puskesmas.internal_messages', 'id'),
+                   (SELECT COALESCE(MAX(id), 0) + 1 FROM hr_puskesmas.internal_messages), false);
+
+    DROP TABLE hr_puskesmas.internal_messages_unpartitioned CASCADE;
+END $$;
+
+-- Partisi bulan ini dan bulan depan; bulan berikutnya dibuat aplikasi saat startup / harian
+DO $$
+DECLARE
+    m DATE := date_trunc('month', NOW())::date;
+BEGIN
+    FOR i IN 0..1 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS hr_puskesmas.%I PARTITION OF hr_puskesmas.internal_messages'
+                       ' FOR VALUES FROM (%L) TO (%L)',
+                       'internal_messages_p' || to_char(m, 'YYYY_MM'), m, (m + INTERVAL '1 month')::date);
+        m := (m + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
 
 CREATE INDEX IF NOT EXISTS idx_internal_messages_receiver ON hr_puskesmas.internal_messages(receiver_id);
 CREATE INDEX IF NOT EXISTS idx_internal_messages_sender ON hr_puskesmas.internal_messages(sender_id);
 CREATE INDEX IF NOT EXISTS idx_internal_messages_created_at ON hr_puskesmas.internal_messages(created_at DESC);
 
+-- Download /files: content type lampiran dicari dari attachment_path (delta update)
+CREATE INDEX IF NOT EXISTS idx_internal_messages_attachment_path
+    ON hr_puskesmas.internal_messages(attachment_path) WHERE attachment_path IS NOT NULL;
+
 -- Threading support (delta update)
 ALTER TABLE hr_puskesmas.internal_messages ADD COLUMN IF NOT EXISTS thread_id BIGINT;
 CREATE INDEX IF NOT EXISTS idx_internal_messages_thread_id ON hr_puskesmas.internal_messages(thread_id);
 
+-- Inbox: latest received message per thread, keyset (created_at, id) (delta update)
+CREATE INDEX IF NOT EXISTS idx_internal_messages_receiver_thread
+    ON hr_puskesmas.internal_messages(receiver_id, thread_id, created_at DESC, id DESC);
+
 -- Backfill existing rows (optional)
 UPDATE hr_puskesmas.internal_messages
 SET thread_id = id
 WHERE thread_id IS NULL;
 
+-- Unread counter cache reload: COUNT(*) per receiver over unread rows only (delta update)
+CREATE INDEX IF NOT EXISTS idx_internal_messages_unread
+    ON hr_puskesmas.internal_messages(receiver_id) WHERE is_read = false;
+
+-- Batch send id (delta update): semua salinan dari satu kiriman berbagi batch_id
+ALTER TABLE hr_puskesmas.internal_messages ADD COLUMN IF NOT EXISTS batch_id BIGINT;
+CREATE INDEX IF NOT EXISTS idx_internal_messages_sender_batch
+    ON hr_puskesmas.internal_messages(sender_id, batch_id, created_at DESC, id DESC);
+
+-- Backfill: old rows were grouped by sender + thread + subject + body
+UPDATE hr_puskesmas.internal_messages m
+SET batch_id = g.first_id
+FROM (
+    SELECT id, MIN(id) OVER (PARTITION BY sender_id, thread_id, subject, body) AS first_id
+    FROM hr_puskesmas.internal_messages
+    WHERE batch_id IS NULL
+) g
+WHERE m.id = g.id;
+
+-- Full-text search (delta update): config 'simple' (PostgreSQL tidak punya config bahasa Indonesia bawaan),
+-- subject berbobot A, body berbobot B. Kolom generated, jadi aplikasi tidak perlu mengisinya.
+ALTER TABLE hr_puskesmas.internal_messages ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(subject, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(body, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_internal_messages_search
+    ON hr_puskesmas.internal_messages USING GIN (search_vector);
+
+-- ============================================
+-- Thread summaries (delta update)
+-- Dipelihara oleh InternalMessageService pada send / markAsRead / delete
+-- ============================================
+CREATE TABLE IF NOT EXISTS hr_puskesmas.message_threads (
+    id BIGINT PRIMARY KEY,
+    subject VARCHAR(500) NOT NULL,
+    last_message_id BIGINT,
+    last_activity_at TIMESTAMP,
+    message_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS hr_puskesmas.thread_participants (
+    id BIGSERIAL PRIMARY KEY,
+    thread_id BIGINT NOT NULL REFERENCES hr_puskesmas.message_threads(id) ON DELETE CASCADE,
+    employee_id BIGINT NOT NULL REFERENCES hr_puskesmas.employees(id) ON DELETE CASCADE,
+    unread_count INTEGER NOT NULL DEFAULT 0,
+    last_received_message_id BIGINT,
+    last_received_at TIMESTAMP,
+    last_sent_message_id BIGINT,
+    last_sent_at TIMESTAMP,
+    CONSTRAINT uk_thread_participants_thread_employee UNIQUE (thread_id, employee_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_thread_participants_inbox
+    ON hr_puskesmas.thread_participants(employee_id, last_received_at DESC, last_received_message_id DESC);
+
+-- Backfill summaries from existing messages
+INSERT INTO hr_puskesmas.message_threads (id, subject, last_message_id, last_activity_at, message_count, created_at)
+SELECT m.thread_id,
+       (array_agg(m.subject ORDER BY m.created_at, m.id))[1],
+       (array_agg(m.id ORDER BY m.created_at DESC, m.id DESC))[1],
+       MAX(m.created_at),
+       COUNT(*),
+       MIN(m.created_at)
+FROM hr_puskesmas.internal_messages m
+WHERE m.thread_id IS NOT NULL
+GROUP BY m.thread_id
+ON CONFLICT (id) DO NOTHING;
+
+INSERT INTO hr_puskesmas.thread_participants
+    (thread_id, employee_id, unread_count, last_received_message_id, last_received_at, last_sent_message_id, last_sent_at)
+SELECT p.thread_id,
+       p.employee_id,
+       COUNT(*) FILTER (WHERE p.role = 'R' AND NOT p.is_read),
+       (array_agg(p.id ORDER BY p.created_at DESC, p.id DESC) FILTER (WHERE p.role = 'R'))[1],
+       MAX(p.created_at) FILTER (WHERE p.role = 'R'),
+       (array_agg(p.id ORDER BY p.created_at DESC, p.id DESC) FILTER (WHERE p.role = 'S'))[1],
+       MAX(p.created_at) FILTER (WHERE p.role = 'S')
+FROM (
+    SELECT thread_id, receiver_id AS employee_id, 'R' AS role, id, created_at, is_read
+    FROM hr_puskesmas.internal_messages WHERE thread_id IS NOT NULL
+    UNION ALL
+    SELECT thread_id, sender_id, 'S', id, created_at, TRUE
+    FROM hr_puskesmas.internal_messages WHERE thread_id IS NOT NULL
+) p
+GROUP BY p.thread_id, p.employee_id
+ON CONFLICT (thread_id, employee_id) DO NOTHING;
+
 -- ============================================
 -- 3. Tabel Document Types (Master Dokumen)
 -- ============================================
@@ -112,6 +281,57 @@ CREATE INDEX IF NOT EXISTS idx_emp_docs_emp ON hr_puskesmas.employee_documents(e
 CREATE INDEX IF NOT EXISTS idx_emp_docs_type ON hr_puskesmas.employee_documents(document_type_id);
 CREATE INDEX IF NOT EXISTS idx_emp_docs_emp_type ON hr_puskesmas.employee_documents(employee_id, document_type_id);
 
+-- Checksum upload (delta update)
+ALTER TABLE hr_puskesmas.employee_documents ADD COLUMN IF NOT EXISTS sha256 VARCHAR(64);
+
+-- Download /files: content type dicari dari stored_path (delta update)
+CREATE INDEX IF NOT EXISTS idx_emp_docs_stored_path ON hr_puskesmas.employee_documents(stored_path);
+
+-- Daftar dokumen admin: filter tanggal upload dan departemen (delta update)
+CREATE INDEX IF NOT EXISTS idx_emp_docs_emp_uploaded ON hr_puskesmas.employee_documents(employee_id, uploaded_at);
+CREATE INDEX IF NOT EXISTS idx_employees_department_lower ON hr_puskesmas.employees(LOWER(department));
+
+-- Antrean review dokumen: status review dan claim ber-lease per admin (delta update)
+-- Jalankan sebelum aplikasi start agar dokumen lama terisi PENDING
+ALTER TABLE hr_puskesmas.employee_documents ADD COLUMN IF NOT EXISTS review_status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE hr_puskesmas.employee_documents ADD COLUMN IF NOT EXISTS claimed_by_id BIGINT
+    REFERENCES hr_puskesmas.employees(id) ON DELETE SET NULL;
+ALTER TABLE hr_puskesmas.employee_documents ADD COLUMN IF NOT EXISTS claim_expires_at TIMESTAMP;
+ALTER TABLE hr_puskesmas.employee_documents ADD COLUMN IF NOT EXISTS reviewed_by_id BIGINT
+    REFERENCES hr_puskesmas.employees(id) ON DELETE SET NULL;
+ALTER TABLE hr_puskesmas.employee_documents ADD COLUMN IF NOT EXISTS reviewed_at TIMESTAMP;
+ALTER TABLE hr_puskesmas.employee_documents ADD COLUMN IF NOT EXISTS review_note VARCHAR(500);
+DO $$
+BEGIN
+    ALTER TABLE hr_puskesmas.employee_documents ADD CONSTRAINT chk_emp_docs_review_status
+        CHECK (review_status IN ('PENDING', 'VERIFIED', 'REJECTED'));
+EXCEPTION WHEN duplicate_object THEN NULL;
+END $$;
+
+-- Claim berikutnya: hanya baris PENDING, urut upload tertua
+CREATE INDEX IF NOT EXISTS idx_emp_docs_review_queue
+    ON hr_puskesmas.employee_documents(uploaded_at, id) WHERE review_status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_emp_docs_claimed_by
+    ON hr_puskesmas.employee_documents(claimed_by_id) WHERE claimed_by_id IS NOT NULL;
+
+-- Upload dokumen resumable (chunk per chunk, gaya tus) (delta update)
+CREATE TABLE IF NOT EXISTS hr_puskesmas.document_upload_sessions (
+    id BIGSERIAL PRIMARY KEY,
+    employee_id BIGINT NOT NULL REFERENCES hr_puskesmas.employees(id) ON DELETE CASCADE,
+    document_type_id BIGINT NOT NULL REFERENCES hr_puskesmas.document_types(id) ON DELETE CASCADE,
+    original_filename TEXT NOT NULL,
+    content_type VARCHAR(200),
+    partial_path TEXT NOT NULL,
+    upload_length BIGINT NOT NULL,
+    upload_offset BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT chk_upload_offset CHECK (upload_offset BETWEEN 0 AND upload_length)
+);
+
+CREATE INDEX IF NOT EXISTS idx_doc_upload_sessions_emp ON hr_puskesmas.document_upload_sessions(employee_id);
+CREATE INDEX IF NOT EXISTS idx_doc_upload_sessions_updated ON hr_puskesmas.document_upload_sessions(updated_at);
+
 -- ============================================
 -- 5. Tabel Leave Requests (Pengajuan Cuti)
 -- ============================================
@@ -133,6 +353,43 @@ CREATE INDEX IF NOT EXISTS idx_leave_emp ON hr_puskesmas.leave_requests(employee
 CREATE INDEX IF NOT EXISTS idx_leave_status ON hr_puskesmas.leave_requests(status);
 CREATE INDEX IF NOT EXISTS idx_leave_dates ON hr_puskesmas.leave_requests(start_date, end_date);
 
+-- Dashboard pegawai: pengajuan cuti terakhir per pegawai (delta update)
+CREATE INDEX IF NOT EXISTS idx_leave_emp_created ON hr_puskesmas.leave_requests(employee_id, created_at DESC, id DESC);
+
+-- Upload mentah (body langsung ke storage) sebelum diklaim oleh cuti / pesan (delta update)
+CREATE TABLE IF NOT EXISTS hr_puskesmas.file_uploads (
+    id BIGSERIAL PRIMARY KEY,
+    employee_id BIGINT NOT NULL REFERENCES hr_puskesmas.employees(id) ON DELETE CASCADE,
+    kind VARCHAR(40) NOT NULL,
+    stored_path TEXT NOT NULL,
+    original_filename TEXT NOT NULL,
+    content_type VARCHAR(200) NOT NULL,
+    size BIGINT NOT NULL,
+    sha256 VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_file_uploads_emp ON hr_puskesmas.file_uploads(employee_id);
+CREATE INDEX IF NOT EXISTS idx_file_uploads_created ON hr_puskesmas.file_uploads(created_at);
+
+-- Pencarian file yatim: setiap kolom path dicek per batch dengan = ANY(...) (delta update)
+CREATE INDEX IF NOT EXISTS idx_leave_attachment_path
+    ON hr_puskesmas.leave_requests(attachment_path) WHERE attachment_path IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_employees_profile_photo_path
+    ON hr_puskesmas.employees(profile_photo_path) WHERE profile_photo_path IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_file_uploads_stored_path ON hr_puskesmas.file_uploads(stored_path);
+
+-- Lampiran pesan dari bulan yang diarsipkan: file tetap disimpan untuk restore,
+-- jadi tidak boleh dianggap yatim oleh pembersih file (delta update)
+CREATE TABLE IF NOT EXISTS hr_puskesmas.archived_message_attachments (
+    path TEXT PRIMARY KEY,
+    archive_month VARCHAR(7) NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_archived_message_attachments_month
+    ON hr_puskesmas.archived_message_attachments(archive_month);
+
 -- ============================================
 -- 6. Tabel App Settings (Master Setting)
 -- ============================================
@@ -4,6 +4,7 @@ import { HashRouter as Router, Routes, Route, Navigate, Link } from 'react-route
 import { User, UserRole, Settings } from './types';
 import { getSettings, getUsers } from './store';
 import * as MessageApi from './src/api/message';
+import { subscribeEmployeeEvents } from './src/api/events';
 import LandingPage from './pages/LandingPage';
 import LoginPage from './pages/LoginPage';
 import AdminDashboard from './pages/AdminDashboard';
@@ -135,10 +136,11 @@ const App: React.FC = () => {
     getSettings().then(setSettings).catch(console.error);
   }, []);
 
-  // Load unread count periodically
+  // Unread count is pushed over SSE; poll every 30 seconds only if the stream is unavailable
   useEffect(() => {
     if (!user) return;
-    
+
+    let interval: ReturnType<typeof setInterval> | undefined;
     const loadUnreadCount = async () => {
       try {
         const count = await MessageApi.messageApi.getUnreadCount();
@@ -148,9 +150,18 @@ const App: React.FC = () => {
       }
     };
 
-    loadUnreadCount();
-    const interval = setInterval(loadUnreadCount, 30000); // Check every 30 seconds
-    return () => clearInterval(interval);
+    const unsubscribe = subscribeEmployeeEvents({
+      onUnreadCount: setUnreadCount,
+      onUnavailable: () => {
+        if (interval) return;
+        loadUnreadCount();
+        interval = setInterval(loadUnreadCount, 30000);
+      },
+    });
+    return () => {
+      unsubscribe();
+      if (interval) clearInterval(interval);
+    };
   }, [user]);
 
   // Listen for custom events to trigger notifications
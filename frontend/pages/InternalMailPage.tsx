@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { User } from '../types';
 import * as MessageApi from '../src/api/message';
+import type { MailEventDetail } from '../src/api/events';
 import type { Employee } from '../src/api/employee';
 import { showNotification } from '../src/utils/notification';
 
@@ -8,6 +9,9 @@ const InternalMailPage: React.FC<{ user: User, onUnreadCountChange?: () => void
   const [activeTab, setActiveTab] = useState<'inbox' | 'sent' | 'compose'>('inbox');
   const [inboxMessages, setInboxMessages] = useState<MessageApi.InternalMessage[]>([]);
   const [sentMessages, setSentMessages] = useState<MessageApi.InternalMessage[]>([]);
+  const [inboxCursor, setInboxCursor] = useState<string | null>(null);
+  const [sentCursor, setSentCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
   const [selectedMessage, setSelectedMessage] = useState<MessageApi.InternalMessage | null>(null);
   const [threadMessages, setThreadMessages] = useState<MessageApi.InternalMessage[]>([]);
   const [employees, setEmployees] = useState<Employee[]>([]);
@@ -27,10 +31,17 @@ const InternalMailPage: React.FC<{ user: User, onUnreadCountChange?: () => void
 
   useEffect(() => {
     loadData();
-    const interval = setInterval(() => {
-      loadUnreadCount();
-    }, 30000); // Check every 30 seconds
-    return () => clearInterval(interval);
+    // Updates are pushed by App's event stream; no polling here
+    const handleMailEvent = (e: Event) => {
+      const { type, data } = (e as CustomEvent<MailEventDetail>).detail;
+      if (type === 'unread-count') {
+        setUnreadCount(data.unreadCount);
+      } else if (type === 'new-message') {
+        loadInbox().catch(console.error);
+      }
+    };
+    window.addEventListener('sikep_mail_event', handleMailEvent);
+    return () => window.removeEventListener('sikep_mail_event', handleMailEvent);
   }, []);
 
   useEffect(() => {
@@ -57,15 +68,39 @@ const InternalMailPage: React.FC<{ user: User, onUnreadCountChange?: () => void
     }
   };
 
+  // Memuat ulang halaman pertama; halaman berikutnya lewat handleLoadMore
   const loadInbox = async () => {
-    const messages = await MessageApi.messageApi.getInbox();
-    setInboxMessages(messages);
+    const page = await MessageApi.messageApi.getInbox();
+    setInboxMessages(page.items);
+    setInboxCursor(page.nextCursor);
   };
 
   const loadSent = async () => {
-    const messages = await MessageApi.messageApi.getSent();
-    setSentMessages(messages);
-    return messages;
+    const page = await MessageApi.messageApi.getSent();
+    setSentMessages(page.items);
+    setSentCursor(page.nextCursor);
+    return page.items;
+  };
+
+  const handleLoadMore = async () => {
+    const cursor = activeTab === 'inbox' ? inboxCursor : sentCursor;
+    if (!cursor || isLoadingMore) return;
+    setIsLoadingMore(true);
+    try {
+      if (activeTab === 'inbox') {
+        const page = await MessageApi.messageApi.getInbox(cursor);
+        setInboxMessages(prev => [...prev, ...page.items]);
+        setInboxCursor(page.nextCursor);
+      } else {
+        const page = await MessageApi.messageApi.getSent(cursor);
+        setSentMessages(prev => [...prev, ...page.items]);
+        setSentCursor(page.nextCursor);
+      }
+    } catch (err: any) {
+      showNotification(`Gagal memuat pesan: ${err.message}`, 'error');
+    } finally {
+      setIsLoadingMore(false);
+    }
   };
 
   const loadEmployees = async () => {
@@ -161,7 +196,11 @@ const InternalMailPage: React.FC<{ user: User, onUnreadCountChange?: () => void
     }
     if (!msg.isRead && msg.receiverId.toString() === user.id) {
       try {
-        await MessageApi.messageApi.markAsRead(msg.id);
+        if (msg.threadId) {
+          await MessageApi.messageApi.markThreadAsRead(msg.threadId);
+        } else {
+          await MessageApi.messageApi.markAsRead(msg.id);
+        }
         await loadInbox();
         await loadUnreadCount();
         if (onUnreadCountChange) onUnreadCountChange();
@@ -228,6 +267,7 @@ const InternalMailPage: React.FC<{ user: User, onUnreadCountChange?: () => void
   };
 
   const currentMessages = activeTab === 'inbox' ? inboxMessages : sentMessages;
+  const currentCursor = activeTab === 'inbox' ? inboxCursor : sentCursor;
 
   // Group by threadId and get latest message per thread
   const latestByThread = currentMessages.reduce((acc, msg) => {
@@ -418,6 +458,16 @@ const InternalMailPage: React.FC<{ user: User, onUnreadCountChange?: () => void
                     </div>
                   ))
                 )}
+                {!isLoading && currentCursor && (
+                  <button
+                    type="button"
+                    onClick={handleLoadMore}
+                    disabled={isLoadingMore}
+                    className="w-full py-2 text-xs font-bold text-teal-600 bg-slate-50 rounded-xl hover:bg-slate-100 transition-all disabled:opacity-50"
+                  >
+                    {isLoadingMore ? 'Memuat...' : 'Muat lebih banyak'}
+                  </button>
+                )}
               </div>
             )}
           </div>
@@ -35,7 +35,7 @@ const MasterKaryawan: React.FC = () => {
       setDocTypes(docTypesData);
       setSettings(settingsData);
 
-      // Load documents for all employees to show counter
+      // Load documents for all employees to show counter (every page)
       const groupedDocs = await DocumentApi.documentApi.listAllUploads();
       const documentsMap = new Map<string, UserDocument[]>();
       groupedDocs.forEach(group => {
@@ -153,8 +153,8 @@ const MasterKaryawan: React.FC = () => {
     setViewingUserDocuments([]);
     
     try {
-      // Fetch all uploaded documents grouped by employee
-      const groupedDocs = await DocumentApi.documentApi.listAllUploads();
+      // Fetch uploaded documents grouped by employee, narrowed to the employee's department
+      const groupedDocs = await DocumentApi.documentApi.listAllUploads({ department: user.department || undefined });
       // Find documents for this specific employee
       const employeeGroup = groupedDocs.find(group => group.employeeId.toString() === user.id);
       if (employeeGroup) {
@@ -4,12 +4,18 @@
 
 // Ganti port backend di sini (default: 8080)
 // Atau gunakan environment variable VITE_API_URL di file .env
-const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
+export const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
 
 export interface ApiResponse<T> {
   data: T;
 }
 
+// Satu halaman dari endpoint keyset; nextCursor null berarti halaman terakhir
+export interface CursorPage<T> {
+  items: T;
+  nextCursor: string | null;
+}
+
 export interface ErrorResponse {
   message: string;
   errors?: Record<string, string[]>;
@@ -24,6 +30,14 @@ class ApiClient {
     endpoint: string,
     options: RequestInit = {}
   ): Promise<T> {
+    const { data } = await this.requestWithHeaders<T>(endpoint, options);
+    return data;
+  }
+
+  private async requestWithHeaders<T>(
+    endpoint: string,
+    options: RequestInit = {}
+  ): Promise<{ data: T; headers: Headers }> {
     const token = this.getAuthToken();
     const headers: HeadersInit = {
       'Content-Type': 'application/json',
@@ -63,10 +77,10 @@ class ApiClient {
     const jsonData = await response.json();
     if (jsonData && typeof jsonData === 'object' && !Array.isArray(jsonData) && 'data' in jsonData) {
       // Wrapped format: {data: ...}
-      return (jsonData as ApiResponse<T>).data;
+      return { data: (jsonData as ApiResponse<T>).data, headers: response.headers };
     } else {
       // Direct format: object atau array langsung
-      return jsonData as T;
+      return { data: jsonData as T, headers: response.headers };
     }
   }
 
@@ -74,6 +88,12 @@ class ApiClient {
     return this.request<T>(endpoint, { method: 'GET' });
   }
 
+  // GET untuk endpoint berhalaman: cursor halaman berikutnya ada di header X-Next-Cursor
+  async getPage<T>(endpoint: string): Promise<CursorPage<T>> {
+    const { data, headers } = await this.requestWithHeaders<T>(endpoint, { method: 'GET' });
+    return { items: data, nextCursor: headers.get('X-Next-Cursor') };
+  }
+
   async post<T>(endpoint: string, body?: any): Promise<T> {
     return this.request<T>(endpoint, {
       method: 'POST',
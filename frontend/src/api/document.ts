@@ -1,4 +1,4 @@
-import { apiClient } from './client';
+import { apiClient, CursorPage } from './client';
 
 export interface DocumentType {
   id: number;
@@ -37,6 +37,25 @@ export interface EmployeeDocumentGroupResponse {
   documents: EmployeeDocument[];
 }
 
+// Filter daftar dokumen admin; tanggal yyyy-MM-dd (UTC, inklusif)
+export interface UploadFilter {
+  department?: string;
+  documentTypeId?: number;
+  uploadedFrom?: string;
+  uploadedTo?: string;
+}
+
+const uploadQuery = (filter: UploadFilter, cursor?: string | null) => {
+  const params = new URLSearchParams();
+  if (filter.department) params.set('department', filter.department);
+  if (filter.documentTypeId) params.set('documentTypeId', String(filter.documentTypeId));
+  if (filter.uploadedFrom) params.set('uploadedFrom', filter.uploadedFrom);
+  if (filter.uploadedTo) params.set('uploadedTo', filter.uploadedTo);
+  if (cursor) params.set('cursor', cursor);
+  const query = params.toString();
+  return query ? `?${query}` : '';
+};
+
 export const documentApi = {
   // Document Types (Admin)
   listDocumentTypes: async (): Promise<DocumentType[]> => {
@@ -64,10 +83,21 @@ export const documentApi = {
     await apiClient.delete<void>(`/admin/document-types/${id}`);
   },
 
-  // Employee Documents (Admin - List all)
-  listAllUploads: async (documentTypeId?: number): Promise<EmployeeDocumentGroupResponse[]> => {
-    const query = documentTypeId ? `?documentTypeId=${documentTypeId}` : '';
-    return apiClient.get<EmployeeDocumentGroupResponse[]>(`/admin/documents/uploads${query}`);
+  // Employee Documents (Admin) - satu halaman, cursor berikutnya dari X-Next-Cursor
+  listUploadsPage: async (filter: UploadFilter = {}, cursor?: string | null): Promise<CursorPage<EmployeeDocumentGroupResponse[]>> => {
+    return apiClient.getPage<EmployeeDocumentGroupResponse[]>(`/admin/documents/uploads${uploadQuery(filter, cursor)}`);
+  },
+
+  // Semua halaman sekaligus (mengikuti nextCursor sampai habis)
+  listAllUploads: async (filter: UploadFilter = {}): Promise<EmployeeDocumentGroupResponse[]> => {
+    const groups: EmployeeDocumentGroupResponse[] = [];
+    let cursor: string | null = null;
+    do {
+      const page: CursorPage<EmployeeDocumentGroupResponse[]> = await documentApi.listUploadsPage(filter, cursor);
+      groups.push(...page.items);
+      cursor = page.nextCursor;
+    } while (cursor);
+    return groups;
   },
 
   // Employee Documents (Self-service)
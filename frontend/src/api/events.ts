@@ -0,0 +1,89 @@
+import { API_BASE_URL, apiClient } from './client';
+
+export interface MailEventDetail {
+  type: 'new-message' | 'unread-count';
+  data: any;
+}
+
+export interface EmployeeEventHandlers {
+  onUnreadCount?: (count: number) => void;
+  onNewMessage?: (data: { messageId: number; threadId: number; senderId: number; senderName: string; subject: string }) => void;
+  onLeaveStatus?: (data: { leaveRequestId: number; status: string }) => void;
+  // Called when the stream cannot be (re)opened, so the caller can fall back to polling
+  onUnavailable?: () => void;
+}
+
+// Berapa kali berturut-turut stream boleh gagal dibuka sebelum caller beralih ke polling
+const MAX_FAILURES = 5;
+const RETRY_DELAY_MS = 3000;
+
+/**
+ * Opens the /employee/events Server-Sent Events stream. EventSource cannot send headers, so each
+ * connection first asks for a single-use ticket (POST /employee/events/ticket) and passes it as
+ * ?ticket=; the login token never goes into the URL. A used ticket cannot reopen the stream, so
+ * reconnects are done here with a fresh ticket instead of by EventSource. Returns a function that
+ * closes the stream.
+ */
+export const subscribeEmployeeEvents = (handlers: EmployeeEventHandlers): (() => void) => {
+  if (!localStorage.getItem('sikep_token') || typeof EventSource === 'undefined') {
+    handlers.onUnavailable?.();
+    return () => {};
+  }
+
+  let source: EventSource | null = null;
+  let retryTimer: ReturnType<typeof setTimeout> | null = null;
+  let failures = 0;
+  let closed = false;
+
+  const fail = () => {
+    if (closed) return;
+    source?.close();
+    source = null;
+    failures += 1;
+    if (failures >= MAX_FAILURES) {
+      handlers.onUnavailable?.();
+      return;
+    }
+    retryTimer = setTimeout(connect, RETRY_DELAY_MS);
+  };
+
+  const connect = async () => {
+    if (closed) return;
+    let ticket: string;
+    try {
+      ticket = (await apiClient.post<{ ticket: string }>('/employee/events/ticket')).ticket;
+    } catch {
+      fail();
+      return;
+    }
+    if (closed) return;
+
+    source = new EventSource(`${API_BASE_URL}/employee/events?ticket=${encodeURIComponent(ticket)}`);
+    source.onopen = () => {
+      failures = 0;
+    };
+    source.addEventListener('unread-count', (e) => {
+      const data = JSON.parse((e as MessageEvent).data);
+      handlers.onUnreadCount?.(data.unreadCount);
+      window.dispatchEvent(new CustomEvent<MailEventDetail>('sikep_mail_event', { detail: { type: 'unread-count', data } }));
+    });
+    source.addEventListener('new-message', (e) => {
+      const data = JSON.parse((e as MessageEvent).data);
+      handlers.onNewMessage?.(data);
+      window.dispatchEvent(new CustomEvent<MailEventDetail>('sikep_mail_event', { detail: { type: 'new-message', data } }));
+    });
+    source.addEventListener('leave-status', (e) => {
+      handlers.onLeaveStatus?.(JSON.parse((e as MessageEvent).data));
+    });
+    // Dropped or refused: reconnect with a new ticket rather than letting EventSource reuse the old URL
+    source.onerror = () => fail();
+  };
+
+  connect();
+
+  return () => {
+    closed = true;
+    if (retryTimer) clearTimeout(retryTimer);
+    source?.close();
+  };
+};
@@ -1,4 +1,4 @@
-import { apiClient } from './client';
+import { apiClient, CursorPage } from './client';
 import { Employee } from './employee';
 
 export interface InternalMessage {
@@ -32,13 +32,28 @@ export interface UnreadCountResponse {
   unreadCount: number;
 }
 
+export interface MessageSearchHit {
+  message: InternalMessage;
+  rank: number;
+  // HTML-escaped, matched terms wrapped in <mark>
+  subjectHighlight: string;
+  bodyHighlight: string;
+}
+
+const withCursor = (path: string, cursor?: string | null) =>
+  cursor ? `${path}?cursor=${encodeURIComponent(cursor)}` : path;
+
 export const messageApi = {
-  getInbox: async (): Promise<InternalMessage[]> => {
-    return apiClient.get<InternalMessage[]>('/employee/messages/inbox');
+  getInbox: async (cursor?: string | null): Promise<CursorPage<InternalMessage[]>> => {
+    return apiClient.getPage<InternalMessage[]>(withCursor('/employee/messages/inbox', cursor));
   },
 
-  getSent: async (): Promise<InternalMessage[]> => {
-    return apiClient.get<InternalMessage[]>('/employee/messages/sent');
+  getSent: async (cursor?: string | null): Promise<CursorPage<InternalMessage[]>> => {
+    return apiClient.getPage<InternalMessage[]>(withCursor('/employee/messages/sent', cursor));
+  },
+
+  search: async (q: string): Promise<MessageSearchHit[]> => {
+    return apiClient.get<MessageSearchHit[]>(`/employee/messages/search?q=${encodeURIComponent(q)}`);
   },
 
   getThreadById: async (id: number): Promise<InternalMessage[]> => {
@@ -76,6 +91,10 @@ export const messageApi = {
     return apiClient.post<InternalMessage>(`/employee/messages/${id}/read`);
   },
 
+  markThreadAsRead: async (threadId: number): Promise<{ updated: number }> => {
+    return apiClient.post<{ updated: number }>(`/employee/messages/thread/${threadId}/read`);
+  },
+
   delete: async (id: number): Promise<void> => {
     await apiClient.delete<void>(`/employee/messages/${id}`);
   },
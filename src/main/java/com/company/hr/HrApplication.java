@@ -3,8 +3,10 @@ package com.company.hr;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class HrApplication {
     public static void main(String[] args) {
         SpringApplication.run(HrApplication.class, args);
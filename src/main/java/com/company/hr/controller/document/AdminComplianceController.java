@@ -0,0 +1,50 @@
+package com.company.hr.controller.document;
+
+import com.company.hr.dto.document.ComplianceEntryResponse;
+import com.company.hr.dto.document.ComplianceSummaryResponse;
+import com.company.hr.service.document.CompliancePage;
+import com.company.hr.service.document.DocumentComplianceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/compliance")
+@Tag(name = "Admin - Compliance")
+public class AdminComplianceController {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final DocumentComplianceService complianceService;
+
+    public AdminComplianceController(DocumentComplianceService complianceService) {
+        this.complianceService = complianceService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Mandatory document status per employee (status=all|complete|incomplete, keyset paginated via X-Next-Cursor)")
+    public ResponseEntity<List<ComplianceEntryResponse>> list(
+            @RequestParam(defaultValue = "all") String status,
+            @RequestParam(required = false) Long missingDocumentTypeId,
+            @RequestParam(defaultValue = "" + DocumentComplianceService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String cursor) {
+        CompliancePage page = complianceService.page(status, missingDocumentTypeId, cursor, limit);
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.entries());
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Complete / incomplete employee counts and uploads per document type")
+    public ComplianceSummaryResponse summary() {
+        return complianceService.summary();
+    }
+}
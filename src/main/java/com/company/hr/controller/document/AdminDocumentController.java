@@ -2,22 +2,28 @@ package com.company.hr.controller.document;
 
 import com.company.hr.dto.document.EmployeeDocumentGroupResponse;
 import com.company.hr.dto.document.EmployeeDocumentResponse;
+import com.company.hr.entity.document.EmployeeDocument;
+import com.company.hr.entity.employee.Employee;
+import com.company.hr.service.document.DocumentGroupPage;
 import com.company.hr.service.document.EmployeeDocumentService;
 import com.company.hr.service.settings.UrlBuilder;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Comparator;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin/documents")
 @Tag(name = "Admin - Documents")
 public class AdminDocumentController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final EmployeeDocumentService documentService;
     private final UrlBuilder urlBuilder;
 
@@ -27,35 +33,43 @@ public class AdminDocumentController {
     }
 
     @GetMapping("/uploads")
-    @Operation(summary = "List uploaded documents grouped by employee, optional filter by documentTypeId")
-    public List<EmployeeDocumentGroupResponse> listUploads(@RequestParam(required = false) Long documentTypeId) {
-        var docs = (documentTypeId != null
-                ? documentService.listByDocumentType(documentTypeId)
-                : documentService.listAll());
-
-        Map<Long, List<EmployeeDocumentResponse>> grouped = docs.stream()
-                .collect(Collectors.groupingBy(
-                        d -> d.getEmployee().getId(),
-                        Collectors.mapping(d -> EmployeeDocumentResponse.from(d, urlBuilder.fileUrl(d.getStoredPath())), Collectors.toList())
-                ));
-
-        return grouped.entrySet().stream()
-                .sorted(Comparator.comparingLong(Map.Entry::getKey))
-                .map(e -> {
-                    var anyDoc = docs.stream()
-                            .filter(d -> d.getEmployee().getId().equals(e.getKey()))
-                            .findFirst()
-                            .orElseThrow();
-                    var emp = anyDoc.getEmployee();
-                    var user = emp.getUserAccount();
-                    return new EmployeeDocumentGroupResponse(
-                            emp.getId(),
-                            emp.getFullName(),
-                            user != null ? user.getEmail() : null,
-                            e.getValue()
-                    );
-                })
-                .toList();
+    @Operation(summary = "List uploaded documents grouped by employee (filter by department, documentTypeId, upload date; keyset paginated via X-Next-Cursor)")
+    public ResponseEntity<List<EmployeeDocumentGroupResponse>> listUploads(
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) Long documentTypeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate uploadedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate uploadedTo,
+            @RequestParam(defaultValue = "" + EmployeeDocumentService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String cursor) {
+        DocumentGroupPage page = documentService.listUploadGroups(department, documentTypeId, uploadedFrom, uploadedTo, cursor, limit);
+
+        // Documents arrive ordered by employee, so each group is a consecutive run
+        List<EmployeeDocumentGroupResponse> groups = new ArrayList<>();
+        Employee current = null;
+        List<EmployeeDocumentResponse> documents = null;
+        for (EmployeeDocument d : page.documents()) {
+            if (current == null || !current.getId().equals(d.getEmployee().getId())) {
+                if (current != null) {
+                    groups.add(toGroup(current, documents));
+                }
+                current = d.getEmployee();
+                documents = new ArrayList<>();
+            }
+            documents.add(EmployeeDocumentResponse.from(d, urlBuilder.fileUrl(d.getStoredPath())));
+        }
+        if (current != null) {
+            groups.add(toGroup(current, documents));
+        }
+
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(groups);
     }
-}
 
+    private static EmployeeDocumentGroupResponse toGroup(Employee emp, List<EmployeeDocumentResponse> documents) {
+        var user = emp.getUserAccount();
+        return new EmployeeDocumentGroupResponse(emp.getId(), emp.getFullName(), user != null ? user.getEmail() : null, documents);
+    }
+}
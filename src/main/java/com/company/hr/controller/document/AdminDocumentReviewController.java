@@ -0,0 +1,82 @@
+package com.company.hr.controller.document;
+
+import com.company.hr.dto.document.DocumentReviewItemResponse;
+import com.company.hr.dto.document.DocumentReviewRequest;
+import com.company.hr.entity.document.EmployeeDocument;
+import com.company.hr.entity.employee.Employee;
+import com.company.hr.security.CurrentUserService;
+import com.company.hr.service.document.DocumentReviewService;
+import com.company.hr.service.employee.EmployeeService;
+import com.company.hr.service.settings.UrlBuilder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/documents/review")
+@Tag(name = "Admin - Document Review")
+public class AdminDocumentReviewController {
+
+    private final DocumentReviewService reviewService;
+    private final EmployeeService employeeService;
+    private final CurrentUserService currentUserService;
+    private final UrlBuilder urlBuilder;
+
+    public AdminDocumentReviewController(DocumentReviewService reviewService,
+                                         EmployeeService employeeService,
+                                         CurrentUserService currentUserService,
+                                         UrlBuilder urlBuilder) {
+        this.reviewService = reviewService;
+        this.employeeService = employeeService;
+        this.currentUserService = currentUserService;
+        this.urlBuilder = urlBuilder;
+    }
+
+    @PostMapping("/claim")
+    @Operation(summary = "Claim the next pending documents (oldest first) for review; the claim expires after the lease")
+    public List<DocumentReviewItemResponse> claim(
+            @RequestParam(defaultValue = "" + DocumentReviewService.DEFAULT_CLAIM_COUNT) int count) {
+        return toResponses(reviewService.claim(reviewer(), count));
+    }
+
+    @GetMapping("/claims")
+    @Operation(summary = "Documents currently claimed by me")
+    public List<DocumentReviewItemResponse> claims() {
+        return toResponses(reviewService.claimedBy(reviewer()));
+    }
+
+    @PostMapping("/{documentId}/verify")
+    @Operation(summary = "Verify a claimed document")
+    public ResponseEntity<Void> verify(@PathVariable Long documentId) {
+        reviewService.verify(documentId, reviewer());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{documentId}/reject")
+    @Operation(summary = "Reject a claimed document with a note for the employee")
+    public ResponseEntity<Void> reject(@PathVariable Long documentId, @Valid @RequestBody DocumentReviewRequest req) {
+        reviewService.reject(documentId, reviewer(), req.note());
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{documentId}/claim")
+    @Operation(summary = "Release a claimed document back to the queue")
+    public ResponseEntity<Void> release(@PathVariable Long documentId) {
+        reviewService.release(documentId, reviewer());
+        return ResponseEntity.noContent().build();
+    }
+
+    private Employee reviewer() {
+        return employeeService.findByUser(currentUserService.getCurrentUser());
+    }
+
+    private List<DocumentReviewItemResponse> toResponses(List<EmployeeDocument> docs) {
+        return docs.stream()
+                .map(d -> DocumentReviewItemResponse.from(d, urlBuilder.fileUrl(d.getStoredPath())))
+                .toList();
+    }
+}
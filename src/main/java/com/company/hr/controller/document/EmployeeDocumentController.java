@@ -1,21 +1,31 @@
 package com.company.hr.controller.document;
 
 import com.company.hr.dto.document.DocumentTypeResponse;
+import com.company.hr.dto.document.DocumentUploadSessionRequest;
+import com.company.hr.dto.document.DocumentUploadSessionResponse;
 import com.company.hr.dto.document.EmployeeDocumentListResponse;
 import com.company.hr.dto.document.EmployeeDocumentResponse;
-import com.company.hr.entity.document.DocumentType;
 import com.company.hr.security.CurrentUserService;
+import com.company.hr.service.document.DocumentComplianceMatrix;
 import com.company.hr.service.document.DocumentTypeService;
+import com.company.hr.service.document.DocumentUploadSessionService;
 import com.company.hr.service.document.EmployeeDocumentService;
 import com.company.hr.service.employee.EmployeeService;
 import com.company.hr.service.settings.UrlBuilder;
+import com.company.hr.service.storage.StorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -23,22 +33,34 @@ import java.util.List;
 @Tag(name = "Employee - Documents")
 public class EmployeeDocumentController {
 
+    static final String UPLOAD_OFFSET = "Upload-Offset";
+    static final String UPLOAD_LENGTH = "Upload-Length";
+
     private final EmployeeService employeeService;
     private final EmployeeDocumentService documentService;
     private final DocumentTypeService documentTypeService;
     private final CurrentUserService currentUserService;
     private final UrlBuilder urlBuilder;
+    private final StorageService storageService;
+    private final DocumentUploadSessionService uploadSessionService;
+    private final DocumentComplianceMatrix complianceMatrix;
 
     public EmployeeDocumentController(EmployeeService employeeService,
                                       EmployeeDocumentService documentService,
                                       DocumentTypeService documentTypeService,
                                       CurrentUserService currentUserService,
-                                      UrlBuilder urlBuilder) {
+                                      UrlBuilder urlBuilder,
+                                      StorageService storageService,
+                                      DocumentUploadSessionService uploadSessionService,
+                                      DocumentComplianceMatrix complianceMatrix) {
         this.employeeService = employeeService;
         this.documentService = documentService;
         this.documentTypeService = documentTypeService;
         this.currentUserService = currentUserService;
         this.urlBuilder = urlBuilder;
+        this.storageService = storageService;
+        this.uploadSessionService = uploadSessionService;
+        this.complianceMatrix = complianceMatrix;
     }
 
     @GetMapping("/types")
@@ -57,11 +79,7 @@ public class EmployeeDocumentController {
         var docs = documentService.listForEmployee(emp).stream()
                 .map(d -> EmployeeDocumentResponse.from(d, urlBuilder.fileUrl(d.getStoredPath())))
                 .toList();
-        var missing = documentTypeService.findAll().stream()
-                .filter(DocumentType::isMandatory)
-                .filter(dt -> !documentService.hasUploaded(emp, dt))
-                .map(DocumentTypeResponse::from)
-                .toList();
+        var missing = complianceMatrix.missingMandatory(emp.getId());
         return new EmployeeDocumentListResponse(docs, missing);
     }
 
@@ -76,6 +94,80 @@ public class EmployeeDocumentController {
                 .body(EmployeeDocumentResponse.from(saved, urlBuilder.fileUrl(saved.getStoredPath())));
     }
 
+    // Raw file as the request body instead of multipart
+    @PutMapping("/{documentTypeId}/content")
+    @Operation(summary = "Upload document by streaming the raw file (pdf/jpg/png)")
+    public ResponseEntity<EmployeeDocumentResponse> uploadStream(@PathVariable Long documentTypeId,
+                                                                 @RequestParam String filename,
+                                                                 @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                                 HttpServletRequest request) throws IOException {
+        storageService.checkDeclaredSize(request.getContentLengthLong());
+        var user = currentUserService.getCurrentUser();
+        var emp = employeeService.findByUser(user);
+        var saved = documentService.uploadStream(emp, documentTypeId, request.getInputStream(), filename, contentType);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(EmployeeDocumentResponse.from(saved, urlBuilder.fileUrl(saved.getStoredPath())));
+    }
+
+    // Resumable upload: create, PATCH chunks at Upload-Offset, check progress, then complete
+    @PostMapping("/uploads")
+    @Operation(summary = "Start a resumable document upload")
+    public ResponseEntity<DocumentUploadSessionResponse> createUpload(@Valid @RequestBody DocumentUploadSessionRequest request) {
+        var emp = employeeService.findByUser(currentUserService.getCurrentUser());
+        var session = uploadSessionService.create(emp, request);
+        return ResponseEntity.created(URI.create("/api/employee/documents/uploads/" + session.getId()))
+                .headers(uploadHeaders(session.getUploadOffset(), session.getUploadLength()))
+                .body(DocumentUploadSessionResponse.from(session, uploadSessionService.expiresAt(session)));
+    }
+
+    // Also answers HEAD with the Upload-Offset header only
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(summary = "Progress of a resumable document upload")
+    public ResponseEntity<DocumentUploadSessionResponse> getUpload(@PathVariable Long uploadId) {
+        var emp = employeeService.findByUser(currentUserService.getCurrentUser());
+        var session = uploadSessionService.get(emp, uploadId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .headers(uploadHeaders(session.getUploadOffset(), session.getUploadLength()))
+                .body(DocumentUploadSessionResponse.from(session, uploadSessionService.expiresAt(session)));
+    }
+
+    @PatchMapping("/uploads/{uploadId}")
+    @Operation(summary = "Append a chunk (raw body) at Upload-Offset")
+    public ResponseEntity<Void> appendChunk(@PathVariable Long uploadId,
+                                            @RequestHeader(UPLOAD_OFFSET) long offset,
+                                            HttpServletRequest request) throws IOException {
+        var emp = employeeService.findByUser(currentUserService.getCurrentUser());
+        long newOffset = uploadSessionService.appendChunk(emp, uploadId, offset, request.getInputStream());
+        return ResponseEntity.noContent()
+                .header(UPLOAD_OFFSET, Long.toString(newOffset))
+                .build();
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    @Operation(summary = "Finish a resumable upload and save it as the document")
+    public ResponseEntity<EmployeeDocumentResponse> completeUpload(@PathVariable Long uploadId) {
+        var emp = employeeService.findByUser(currentUserService.getCurrentUser());
+        var saved = uploadSessionService.complete(emp, uploadId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(EmployeeDocumentResponse.from(saved, urlBuilder.fileUrl(saved.getStoredPath())));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(summary = "Cancel a resumable document upload")
+    public ResponseEntity<Void> cancelUpload(@PathVariable Long uploadId) {
+        var emp = employeeService.findByUser(currentUserService.getCurrentUser());
+        uploadSessionService.cancel(emp, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static HttpHeaders uploadHeaders(long offset, long length) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(UPLOAD_OFFSET, Long.toString(offset));
+        headers.set(UPLOAD_LENGTH, Long.toString(length));
+        return headers;
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete own document")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
@@ -5,6 +5,7 @@ import com.company.hr.dto.employee.EmployeeRequest;
 import com.company.hr.dto.employee.EmployeeResponse;
 import com.company.hr.service.employee.EmployeeService;
 import com.company.hr.service.settings.UrlBuilder;
+import com.company.hr.service.storage.ImageDerivativeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -33,7 +34,7 @@ public class AdminEmployeeController {
         return employeeService.findAll().stream()
                 .map(emp -> {
                     String photoUrl = emp.getProfilePhotoPath() != null 
-                            ? urlBuilder.fileUrl(emp.getProfilePhotoPath()) 
+                            ? urlBuilder.imageUrl(emp.getProfilePhotoPath(), ImageDerivativeService.MEDIUM) 
                             : null;
                     return EmployeeResponse.from(emp, photoUrl);
                 })
@@ -45,7 +46,7 @@ public class AdminEmployeeController {
     public EmployeeResponse get(@PathVariable Long id) {
         var emp = employeeService.getById(id);
         String photoUrl = emp.getProfilePhotoPath() != null 
-                ? urlBuilder.fileUrl(emp.getProfilePhotoPath()) 
+                ? urlBuilder.imageUrl(emp.getProfilePhotoPath(), ImageDerivativeService.MEDIUM) 
                 : null;
         return EmployeeResponse.from(emp, photoUrl);
     }
@@ -55,7 +56,7 @@ public class AdminEmployeeController {
     public ResponseEntity<EmployeeResponse> create(@Valid @RequestBody EmployeeCreateRequest req) {
         var emp = employeeService.create(req);
         String photoUrl = emp.getProfilePhotoPath() != null 
-                ? urlBuilder.fileUrl(emp.getProfilePhotoPath()) 
+                ? urlBuilder.imageUrl(emp.getProfilePhotoPath(), ImageDerivativeService.MEDIUM) 
                 : null;
         return ResponseEntity.status(HttpStatus.CREATED).body(EmployeeResponse.from(emp, photoUrl));
     }
@@ -65,7 +66,7 @@ public class AdminEmployeeController {
     public EmployeeResponse update(@PathVariable Long id, @Valid @RequestBody EmployeeRequest req) {
         var emp = employeeService.update(id, req);
         String photoUrl = emp.getProfilePhotoPath() != null 
-                ? urlBuilder.fileUrl(emp.getProfilePhotoPath()) 
+                ? urlBuilder.imageUrl(emp.getProfilePhotoPath(), ImageDerivativeService.MEDIUM) 
                 : null;
         return EmployeeResponse.from(emp, photoUrl);
     }
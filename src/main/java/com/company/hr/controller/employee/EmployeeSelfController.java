@@ -6,6 +6,7 @@ import com.company.hr.dto.employee.EmployeeResponse;
 import com.company.hr.security.CurrentUserService;
 import com.company.hr.service.employee.EmployeeService;
 import com.company.hr.service.settings.UrlBuilder;
+import com.company.hr.service.storage.ImageDerivativeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -35,7 +36,7 @@ public class EmployeeSelfController {
         var user = currentUserService.getCurrentUser();
         var emp = employeeService.findByUser(user);
         String photoUrl = emp.getProfilePhotoPath() != null 
-                ? urlBuilder.fileUrl(emp.getProfilePhotoPath()) 
+                ? urlBuilder.imageUrl(emp.getProfilePhotoPath(), ImageDerivativeService.MEDIUM) 
                 : null;
         return EmployeeResponse.from(emp, photoUrl);
     }
@@ -46,7 +47,7 @@ public class EmployeeSelfController {
         var user = currentUserService.getCurrentUser();
         var emp = employeeService.upsertSelf(user, req);
         String photoUrl = emp.getProfilePhotoPath() != null 
-                ? urlBuilder.fileUrl(emp.getProfilePhotoPath()) 
+                ? urlBuilder.imageUrl(emp.getProfilePhotoPath(), ImageDerivativeService.MEDIUM) 
                 : null;
         return EmployeeResponse.from(emp, photoUrl);
     }
@@ -56,7 +57,7 @@ public class EmployeeSelfController {
     public ResponseEntity<EmployeeResponse> uploadPhoto(@RequestParam("file") MultipartFile file) {
         var user = currentUserService.getCurrentUser();
         var emp = employeeService.uploadProfilePhoto(user, file);
-        String photoUrl = urlBuilder.fileUrl(emp.getProfilePhotoPath());
+        String photoUrl = urlBuilder.imageUrl(emp.getProfilePhotoPath(), ImageDerivativeService.MEDIUM);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(EmployeeResponse.from(emp, photoUrl));
     }
@@ -0,0 +1,55 @@
+package com.company.hr.controller.event;
+
+import com.company.hr.security.CurrentUserService;
+import com.company.hr.security.EventStreamTicketService;
+import com.company.hr.service.employee.EmployeeService;
+import com.company.hr.service.event.EmployeeEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/employee/events")
+@Tag(name = "Employee - Events")
+public class EmployeeEventController {
+
+    private final EmployeeEventService eventService;
+    private final EmployeeService employeeService;
+    private final CurrentUserService currentUserService;
+    private final EventStreamTicketService ticketService;
+
+    public EmployeeEventController(EmployeeEventService eventService,
+                                   EmployeeService employeeService,
+                                   CurrentUserService currentUserService,
+                                   EventStreamTicketService ticketService) {
+        this.eventService = eventService;
+        this.employeeService = employeeService;
+        this.currentUserService = currentUserService;
+        this.ticketService = ticketService;
+    }
+
+    @PostMapping("/ticket")
+    @Operation(summary = "Issue a short-lived, single-use ticket for opening the event stream (?ticket=)")
+    public Map<String, String> ticket() {
+        var user = currentUserService.getCurrentUser();
+        return Map.of("ticket", ticketService.issue(user.getEmail()));
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to unread-count, new-message and leave-status events (SSE, authorized by ?ticket=)")
+    public SseEmitter subscribe(HttpServletResponse response) {
+        var user = currentUserService.getCurrentUser();
+        var emp = employeeService.findByUser(user);
+        // Stop nginx from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return eventService.subscribe(emp.getId());
+    }
+}
@@ -1,20 +1,26 @@
 package com.company.hr.controller.message;
 
-import com.company.hr.dto.employee.EmployeeResponse;
 import com.company.hr.dto.message.InternalMessageRequest;
 import com.company.hr.dto.message.InternalMessageResponse;
+import com.company.hr.dto.message.MessageSearchHitResponse;
 import com.company.hr.security.CurrentUserService;
 import com.company.hr.service.employee.EmployeeService;
+import com.company.hr.service.employee.RecipientDirectory;
 import com.company.hr.service.message.InternalMessageService;
+import com.company.hr.service.message.MessagePage;
+import com.company.hr.service.message.MessageSearchPage;
 import com.company.hr.service.settings.UrlBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -26,8 +32,12 @@ import java.util.Set;
 @Tag(name = "Employee - Internal Messages")
 public class EmployeeMessageController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String UNREAD_COUNT_HEADER = "X-Unread-Count";
+
     private final InternalMessageService messageService;
     private final EmployeeService employeeService;
+    private final RecipientDirectory recipientDirectory;
     private final CurrentUserService currentUserService;
     private final UrlBuilder urlBuilder;
     private final ObjectMapper objectMapper;
@@ -35,52 +45,73 @@ public class EmployeeMessageController {
 
     public EmployeeMessageController(InternalMessageService messageService,
                                      EmployeeService employeeService,
+                                     RecipientDirectory recipientDirectory,
                                      CurrentUserService currentUserService,
                                      UrlBuilder urlBuilder,
                                      ObjectMapper objectMapper,
                                      Validator validator) {
         this.messageService = messageService;
         this.employeeService = employeeService;
+        this.recipientDirectory = recipientDirectory;
         this.currentUserService = currentUserService;
         this.urlBuilder = urlBuilder;
         this.objectMapper = objectMapper;
         this.validator = validator;
     }
 
+    // Same list for every caller (including themselves), so one snapshot and ETag serve everyone
     @GetMapping("/recipients")
-    @Operation(summary = "List message recipients")
-    public List<EmployeeResponse> getRecipients() {
-        var user = currentUserService.getCurrentUser();
-        var current = employeeService.findByUser(user);
-        return employeeService.findAll().stream()
-                .filter(emp -> !emp.getId().equals(current.getId()))
-                .map(emp -> {
-                    String photoUrl = emp.getProfilePhotoPath() != null
-                            ? urlBuilder.fileUrl(emp.getProfilePhotoPath())
-                            : null;
-                    return EmployeeResponse.from(emp, photoUrl);
-                })
-                .toList();
+    @Operation(summary = "List message recipients (ETag / If-None-Match supported)")
+    public ResponseEntity<byte[]> getRecipients(WebRequest request) {
+        var snapshot = recipientDirectory.current();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.json());
     }
 
     @GetMapping("/inbox")
-    @Operation(summary = "Get inbox messages")
-    public List<InternalMessageResponse> getInbox() {
+    @Operation(summary = "Get inbox messages (latest per thread, keyset paginated via X-Next-Cursor)")
+    public ResponseEntity<List<InternalMessageResponse>> getInbox(
+            @RequestParam(defaultValue = "" + InternalMessageService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String cursor) {
         var user = currentUserService.getCurrentUser();
         var emp = employeeService.findByUser(user);
-        return messageService.getInbox(emp).stream()
-                .map(this::toResponse)
-                .toList();
+        return toPageResponse(messageService.getInbox(emp, cursor, limit));
     }
 
     @GetMapping("/sent")
-    @Operation(summary = "Get sent messages")
-    public List<InternalMessageResponse> getSent() {
+    @Operation(summary = "Get sent messages (one per send, keyset paginated via X-Next-Cursor)")
+    public ResponseEntity<List<InternalMessageResponse>> getSent(
+            @RequestParam(defaultValue = "" + InternalMessageService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String cursor) {
         var user = currentUserService.getCurrentUser();
         var emp = employeeService.findByUser(user);
-        return messageService.getSent(emp).stream()
-                .map(this::toResponse)
+        return toPageResponse(messageService.getSent(emp, cursor, limit));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Full-text search in own threads (ranked, keyset paginated via X-Next-Cursor)")
+    public ResponseEntity<List<MessageSearchHitResponse>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + InternalMessageService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String cursor) {
+        var user = currentUserService.getCurrentUser();
+        var emp = employeeService.findByUser(user);
+        MessageSearchPage page = messageService.search(emp, q, cursor, limit);
+        var body = page.hits().stream()
+                .map(hit -> new MessageSearchHitResponse(toResponse(hit.message()), hit.rank(),
+                        hit.subjectHighlight(), hit.bodyHighlight()))
                 .toList();
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(body);
     }
 
     @GetMapping("/thread/by-id/{id}")
@@ -144,11 +175,24 @@ public class EmployeeMessageController {
     }
 
     @PostMapping("/{id}/read")
-    @Operation(summary = "Mark message as read")
-    public InternalMessageResponse markAsRead(@PathVariable Long id) {
+    @Operation(summary = "Mark message as read (unread count after the update in X-Unread-Count; written immediately"
+            + " unless app.messages.read-receipts.write-behind=true, which is off by default)")
+    public ResponseEntity<InternalMessageResponse> markAsRead(@PathVariable Long id) {
         var user = currentUserService.getCurrentUser();
         var emp = employeeService.findByUser(user);
-        return toResponse(messageService.markAsRead(id, emp));
+        var msg = messageService.markAsRead(id, emp);
+        // Committed by now; with write-behind the mark may still be queued and is subtracted from the count
+        return ResponseEntity.ok()
+                .header(UNREAD_COUNT_HEADER, String.valueOf(messageService.getUnreadCountAfterRead(emp, msg.getId())))
+                .body(toResponse(msg));
+    }
+
+    @PostMapping("/thread/{threadId}/read")
+    @Operation(summary = "Mark all received messages in a thread as read")
+    public Map<String, Integer> markThreadAsRead(@PathVariable Long threadId) {
+        var user = currentUserService.getCurrentUser();
+        var emp = employeeService.findByUser(user);
+        return Map.of("updated", messageService.markThreadAsRead(threadId, emp));
     }
 
     @DeleteMapping("/{id}")
@@ -160,6 +204,15 @@ public class EmployeeMessageController {
         return ResponseEntity.noContent().build();
     }
 
+    private ResponseEntity<List<InternalMessageResponse>> toPageResponse(MessagePage page) {
+        var body = page.messages().stream().map(this::toResponse).toList();
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(body);
+    }
+
     private InternalMessageResponse toResponse(com.company.hr.entity.message.InternalMessage msg) {
         String attachmentUrl = msg.getAttachmentPath() != null
                 ? urlBuilder.fileUrl(msg.getAttachmentPath())
@@ -4,6 +4,7 @@ import com.company.hr.dto.settings.AppSettingRequest;
 import com.company.hr.dto.settings.AppSettingResponse;
 import com.company.hr.service.settings.AppSettingService;
 import com.company.hr.service.settings.UrlBuilder;
+import com.company.hr.service.storage.ImageDerivativeService;
 import com.company.hr.service.storage.StorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,11 +21,14 @@ public class AdminSettingController {
 
     private final AppSettingService settingService;
     private final StorageService storageService;
+    private final ImageDerivativeService imageDerivatives;
     private final UrlBuilder urlBuilder;
 
-    public AdminSettingController(AppSettingService settingService, StorageService storageService, UrlBuilder urlBuilder) {
+    public AdminSettingController(AppSettingService settingService, StorageService storageService,
+                                  ImageDerivativeService imageDerivatives, UrlBuilder urlBuilder) {
         this.settingService = settingService;
         this.storageService = storageService;
+        this.imageDerivatives = imageDerivatives;
         this.urlBuilder = urlBuilder;
     }
 
@@ -32,14 +36,14 @@ public class AdminSettingController {
     @Operation(summary = "Get application settings")
     public AppSettingResponse get() {
         var s = settingService.getOrCreate();
-        return AppSettingResponse.from(s, urlBuilder.fileUrl(s.getLogoPath()));
+        return AppSettingResponse.from(s, urlBuilder.imageUrl(s.getLogoPath(), ImageDerivativeService.MEDIUM));
     }
 
     @PutMapping
     @Operation(summary = "Update application settings (text fields)")
     public AppSettingResponse update(@Valid @RequestBody AppSettingRequest req) {
         var s = settingService.update(req);
-        return AppSettingResponse.from(s, urlBuilder.fileUrl(s.getLogoPath()));
+        return AppSettingResponse.from(s, urlBuilder.imageUrl(s.getLogoPath(), ImageDerivativeService.MEDIUM));
     }
 
     @PostMapping("/logo")
@@ -52,7 +56,8 @@ public class AdminSettingController {
         }
         String path = storageService.storeLogo(file);
         var s = settingService.updateLogoPath(path);
-        return ResponseEntity.status(HttpStatus.CREATED).body(AppSettingResponse.from(s, urlBuilder.fileUrl(s.getLogoPath())));
+        imageDerivatives.generateAfterCommit(path);
+        return ResponseEntity.status(HttpStatus.CREATED).body(AppSettingResponse.from(s, urlBuilder.imageUrl(s.getLogoPath(), ImageDerivativeService.MEDIUM)));
     }
 }
 
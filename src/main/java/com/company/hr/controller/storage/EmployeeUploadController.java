@@ -0,0 +1,51 @@
+package com.company.hr.controller.storage;
+
+import com.company.hr.dto.storage.FileUploadResponse;
+import com.company.hr.entity.storage.UploadKind;
+import com.company.hr.security.CurrentUserService;
+import com.company.hr.service.employee.EmployeeService;
+import com.company.hr.service.storage.FileUploadService;
+import com.company.hr.service.storage.StorageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/employee/uploads")
+@Tag(name = "Employee - Uploads")
+public class EmployeeUploadController {
+
+    private final FileUploadService uploadService;
+    private final StorageService storageService;
+    private final EmployeeService employeeService;
+    private final CurrentUserService currentUserService;
+
+    public EmployeeUploadController(FileUploadService uploadService,
+                                    StorageService storageService,
+                                    EmployeeService employeeService,
+                                    CurrentUserService currentUserService) {
+        this.uploadService = uploadService;
+        this.storageService = storageService;
+        this.employeeService = employeeService;
+        this.currentUserService = currentUserService;
+    }
+
+    // The body is the raw file (not multipart); pass the returned id as attachmentUploadId
+    @PostMapping
+    @Operation(summary = "Stream a leave or message attachment (raw request body)")
+    public ResponseEntity<FileUploadResponse> upload(@RequestParam UploadKind kind,
+                                                     @RequestParam String filename,
+                                                     @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                     HttpServletRequest request) throws IOException {
+        storageService.checkDeclaredSize(request.getContentLengthLong());
+        var emp = employeeService.findByUser(currentUserService.getCurrentUser());
+        var upload = uploadService.receive(emp, kind, request.getInputStream(), filename, contentType);
+        return ResponseEntity.status(HttpStatus.CREATED).body(FileUploadResponse.from(upload));
+    }
+}
@@ -1,10 +1,21 @@
 package com.company.hr.controller.storage;
 
+import com.company.hr.service.storage.BlobInfo;
+import com.company.hr.service.storage.BlobStore;
+import com.company.hr.service.storage.FileMetadataResolver;
+import com.company.hr.service.storage.FileUrlSigner;
+import com.company.hr.service.storage.ImageDerivativeService;
+import com.company.hr.service.storage.OrphanFileCollector;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
@@ -12,24 +23,85 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UriUtils;
 
-import java.nio.file.Files;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Serves stored uploads.
+ *
+ * With the local BlobStore and app.storage.delivery=direct the file is written by Tomcat with
+ * sendfile where the connector supports it. With x-accel the app only authorizes the path and
+ * answers with an X-Accel-Redirect to an internal nginx location that maps onto the same upload
+ * directory. With a remote BlobStore the client is redirected to a short-lived presigned URL, or,
+ * with app.storage.s3.presign-downloads=false, the object is streamed through the app.
+ *
+ * With app.storage.signed-urls enabled every request must carry the exp / sig parameters issued by
+ * UrlBuilder; they are checked against FileUrlSigner only, so no JWT or database lookup is needed.
+ *
+ * Stored names are random UUIDs that are never rewritten, so responses are cached as immutable
+ * and validated with a strong ETag built from size and modification time. Single ranges are
+ * sent with sendfile as well; multi-range and unsatisfiable ranges fall back to Spring's resource
+ * handling (206 / 416). An If-Range that no longer matches returns the full file.
+ */
 @RestController
 @RequestMapping("/files")
 @SuppressWarnings("null")
 public class FileController {
 
-    private final Path baseDir;
+    // Message archives and quarantined orphans live under the upload dir but are not public
+    private static final String ARCHIVE_DIR = "archive/";
+    private static final String QUARANTINE_DIR = OrphanFileCollector.QUARANTINE_DIR + "/";
+    private static final long MAX_AGE_SECONDS = TimeUnit.DAYS.toSeconds(365);
 
-    public FileController(@Value("${app.storage.upload-dir:uploads}") String baseDir) {
-        this.baseDir = Path.of(baseDir).toAbsolutePath().normalize();
+    private static final String X_ACCEL_REDIRECT = "X-Accel-Redirect";
+
+    // Tomcat's sendfile request attributes (NIO connector without TLS)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final BlobStore blobStore;
+    private final FileMetadataResolver metadataResolver;
+    private final FileUrlSigner signer;
+    private final ImageDerivativeService imageDerivatives;
+    private final boolean offload;
+    private final String offloadLocation;
+    private final boolean presignDownloads;
+    private final Duration presignTtl;
+
+    public FileController(BlobStore blobStore,
+                          @Value("${app.storage.delivery:direct}") String delivery,
+                          @Value("${app.storage.x-accel-location:/internal-files/}") String offloadLocation,
+                          @Value("${app.storage.s3.presign-downloads:true}") boolean presignDownloads,
+                          @Value("${app.storage.s3.presign-minutes:10}") long presignMinutes,
+                          FileMetadataResolver metadataResolver,
+                          FileUrlSigner signer,
+                          ImageDerivativeService imageDerivatives) {
+        this.blobStore = blobStore;
+        this.presignDownloads = presignDownloads;
+        this.presignTtl = Duration.ofMinutes(presignMinutes);
+        this.metadataResolver = metadataResolver;
+        this.signer = signer;
+        this.imageDerivatives = imageDerivatives;
+        this.offload = "x-accel".equalsIgnoreCase(delivery);
+        this.offloadLocation = offloadLocation.endsWith("/") ? offloadLocation : offloadLocation + "/";
     }
 
     @GetMapping("/**")
     public ResponseEntity<Resource> get(HttpServletRequest request,
-                                        @RequestParam(required = false) String download) {
+                                        ServletWebRequest webRequest,
+                                        @RequestParam(required = false) String download) throws IOException {
         String uri = request.getRequestURI();
         if (uri == null) uri = "";
         
@@ -52,32 +124,38 @@ public class FileController {
         if (pathWithinHandler.contains("..") || pathWithinHandler.startsWith("/")) {
             return ResponseEntity.badRequest().build();
         }
-
-        Path filePath = baseDir.resolve(pathWithinHandler).normalize();
-        
-        // Security: ensure file is within base directory
-        if (!filePath.startsWith(baseDir)) {
-            return ResponseEntity.badRequest().build();
+        if (pathWithinHandler.startsWith(ARCHIVE_DIR) || pathWithinHandler.startsWith(QUARANTINE_DIR)) {
+            return ResponseEntity.notFound().build();
         }
 
-        FileSystemResource resource = new FileSystemResource(filePath);
-        if (!resource.exists() || !resource.isReadable()) {
-            return ResponseEntity.notFound().build();
+        // Signed URLs are cached no longer than they stay valid
+        long maxAge = MAX_AGE_SECONDS;
+        if (signer.isEnabled()) {
+            Long expires = signer.verify(FileUrlSigner.SCOPE_FILE, pathWithinHandler,
+                    request.getParameter(FileUrlSigner.EXPIRES_PARAM), request.getParameter(FileUrlSigner.SIGNATURE_PARAM));
+            if (expires == null) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            maxAge = expires - Instant.now().getEpochSecond();
         }
+        String cacheControl = CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic().immutable().getHeaderValue();
 
-        // Determine content type
-        MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
-        try {
-            String contentType = Files.probeContentType(filePath);
-            if (contentType != null && !contentType.isEmpty()) {
-                mediaType = MediaType.parseMediaType(contentType);
+        // Thumbnail not generated yet: queue it and serve the original, revalidated on every use
+        if (pathWithinHandler.startsWith(ImageDerivativeService.DIR + "/") && blobStore.stat(pathWithinHandler) == null) {
+            String source = imageDerivatives.sourceOf(pathWithinHandler);
+            if (source == null) {
+                return ResponseEntity.notFound().build();
             }
-        } catch (Exception ignored) {
-            // Use default APPLICATION_OCTET_STREAM
+            imageDerivatives.submit(source);
+            pathWithinHandler = source;
+            cacheControl = CacheControl.noCache().getHeaderValue();
         }
 
+        // Determine content type (recorded at upload, else by extension)
+        MediaType mediaType = metadataResolver.contentType(pathWithinHandler);
+
         // Get filename for Content-Disposition
-        String filename = filePath.getFileName().toString();
+        String filename = pathWithinHandler.substring(pathWithinHandler.lastIndexOf('/') + 1);
         
         // Determine disposition: "attachment" for download, "inline" for view
         String disposition = "inline";
@@ -93,13 +171,159 @@ public class FileController {
                 disposition = "attachment";
             }
         }
+        String contentDisposition = String.format("%s; filename=\"%s\"", disposition, filename);
+
+        Path filePath = blobStore.localPath(pathWithinHandler);
+        if (filePath == null) {
+            return remote(request, webRequest, pathWithinHandler, mediaType, contentDisposition, cacheControl);
+        }
+
+        if (offload) {
+            // nginx streams the file, including ranges and conditional requests
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_TYPE, mediaType.toString())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .header(X_ACCEL_REDIRECT, offloadLocation + UriUtils.encodePath(pathWithinHandler, StandardCharsets.UTF_8))
+                    .build();
+        }
+
+        BlobInfo info = blobStore.stat(pathWithinHandler);
+        if (info == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long length = info.size();
+        long lastModified = info.lastModified().toEpochMilli();
+        String etag = info.etag();
+
+        // 304 still carries the caching policy
+        HttpServletResponse response = webRequest.getResponse();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (sendfile(request, response, filePath, length, etag, lastModified)) {
+            response.setContentType(mediaType.toString());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+            return null;
+        }
+
+        // Spring only applies Range to Resource bodies other than InputStreamResource
+        Resource body = new FileSystemResource(filePath);
+        if (request.getHeader(HttpHeaders.RANGE) != null && !ifRangeMatches(request, etag, lastModified)) {
+            body = new InputStreamResource(body.getInputStream());
+        }
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_TYPE, mediaType.toString())
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                        String.format("%s; filename=\"%s\"", disposition, filename))
-                .header(HttpHeaders.CACHE_CONTROL, "public, max-age=3600")
-                .body(resource);
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .body(body);
+    }
+
+    // Presigned redirect, or the object streamed through the app with single-range support
+    private ResponseEntity<Resource> remote(HttpServletRequest request, ServletWebRequest webRequest, String key,
+                                            MediaType mediaType, String contentDisposition, String cacheControl) throws IOException {
+        if (presignDownloads) {
+            URI location = blobStore.presignGet(key, presignTtl, mediaType.toString(), contentDisposition);
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(location)
+                    .cacheControl(CacheControl.maxAge(presignTtl.dividedBy(2)).cachePrivate())
+                    .build();
+        }
+        BlobInfo info = blobStore.stat(key);
+        if (info == null) {
+            return ResponseEntity.notFound().build();
+        }
+        long length = info.size();
+        long lastModified = info.lastModified().toEpochMilli();
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (webRequest.checkNotModified(info.etag(), lastModified)) {
+            return null;
+        }
+
+        long start = 0;
+        long end = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        boolean partial = false;
+        if (range != null && ifRangeMatches(request, info.etag(), lastModified)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Several ranges: the whole object is a valid answer
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length) + 1;
+                    partial = true;
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                        .build();
+            }
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, mediaType.toString())
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(info.etag())
+                .lastModified(lastModified)
+                .contentLength(end - start);
+        if (partial) {
+            builder.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            return builder.build();
+        }
+        InputStream body = partial ? blobStore.get(key, start, end) : blobStore.get(key);
+        return builder.body(new InputStreamResource(body));
+    }
+
+    // Hands the file (or a single range of it) to Tomcat, which writes it with sendfile once the
+    // handler returns. Not available over TLS or for HEAD; multi-range and invalid ranges go
+    // through Spring instead.
+    private static boolean sendfile(HttpServletRequest request, HttpServletResponse response, Path file,
+                                    long length, String etag, long lastModified) {
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) || !"GET".equals(request.getMethod())) {
+            return false;
+        }
+        long start = 0;
+        long end = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, etag, lastModified)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() != 1) return false;
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length) + 1;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+        response.setContentLengthLong(end - start);
+        request.setAttribute(SENDFILE_FILENAME, file.toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end);
+        return true;
+    }
+
+    // Absent If-Range means the range always applies; a date only matches to the second
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 }
 
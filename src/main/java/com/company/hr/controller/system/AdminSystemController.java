@@ -0,0 +1,90 @@
+package com.company.hr.controller.system;
+
+import com.company.hr.dto.system.MessageArchiveResponse;
+import com.company.hr.dto.system.MessagePartitionResponse;
+import com.company.hr.dto.system.StorageGcReportResponse;
+import com.company.hr.dto.system.StorageGcStatusResponse;
+import com.company.hr.dto.system.UnreadCacheStatsResponse;
+import com.company.hr.dto.system.UnreadCacheVerifyResponse;
+import com.company.hr.service.message.MessagePartitionService;
+import com.company.hr.service.message.UnreadCounterCache;
+import com.company.hr.service.storage.OrphanFileCollector;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/system")
+@Tag(name = "Admin - System")
+public class AdminSystemController {
+
+    private final UnreadCounterCache unreadCounterCache;
+    private final MessagePartitionService messagePartitionService;
+    private final OrphanFileCollector orphanFileCollector;
+
+    public AdminSystemController(UnreadCounterCache unreadCounterCache,
+                                 MessagePartitionService messagePartitionService,
+                                 OrphanFileCollector orphanFileCollector) {
+        this.unreadCounterCache = unreadCounterCache;
+        this.messagePartitionService = messagePartitionService;
+        this.orphanFileCollector = orphanFileCollector;
+    }
+
+    @GetMapping("/caches/unread")
+    @Operation(summary = "Unread counter cache hit/miss and consistency metrics")
+    public UnreadCacheStatsResponse unreadCacheStats() {
+        return unreadCounterCache.stats();
+    }
+
+    @PostMapping("/caches/unread/verify")
+    @Operation(summary = "Check every cached unread counter against the database and repair drift")
+    public UnreadCacheVerifyResponse verifyUnreadCache() {
+        return unreadCounterCache.verifyAll();
+    }
+
+    @GetMapping("/messages/partitions")
+    @Operation(summary = "List attached monthly partitions of internal messages")
+    public List<MessagePartitionResponse> messagePartitions() {
+        return messagePartitionService.listPartitions();
+    }
+
+    @GetMapping("/messages/archives")
+    @Operation(summary = "List archived months of internal messages")
+    public List<MessageArchiveResponse> messageArchives() {
+        return messagePartitionService.listArchives();
+    }
+
+    @PostMapping("/messages/partitions/{month}/archive")
+    @Operation(summary = "Archive a past month (yyyy-MM) of internal messages now")
+    public ResponseEntity<Void> archiveMessages(@PathVariable String month) {
+        messagePartitionService.archive(month);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/messages/archives/{month}/restore")
+    @Operation(summary = "Restore an archived month (yyyy-MM) of internal messages")
+    public ResponseEntity<Void> restoreMessages(@PathVariable String month) {
+        messagePartitionService.restore(month);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/storage/gc")
+    @Operation(summary = "Orphan file collector settings, last finished pass and the pass in progress")
+    public StorageGcStatusResponse storageGcStatus() {
+        return orphanFileCollector.status();
+    }
+
+    @PostMapping("/storage/gc/run")
+    @Operation(summary = "Run a full orphan file collection pass now; dryRun only reports what would be quarantined")
+    public StorageGcReportResponse runStorageGc(@RequestParam(defaultValue = "true") boolean dryRun) {
+        return orphanFileCollector.runFullPass(dryRun);
+    }
+}
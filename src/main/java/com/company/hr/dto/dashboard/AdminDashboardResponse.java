@@ -18,7 +18,7 @@ public record AdminDashboardResponse(
         // Position distribution
         Map<String, Long> positionDistribution,
         
-        // Documents need review (employees missing mandatory docs)
+        // Uploaded documents still pending in the review queue
         long documentsNeedReview
 ) {
 }
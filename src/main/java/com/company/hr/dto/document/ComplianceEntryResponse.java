@@ -0,0 +1,14 @@
+package com.company.hr.dto.document;
+
+import java.util.List;
+
+public record ComplianceEntryResponse(
+        Long employeeId,
+        String fullName,
+        String position,
+        String department,
+        int mandatoryUploaded,
+        int mandatoryMissing,
+        List<Long> missingDocumentTypeIds
+) {
+}
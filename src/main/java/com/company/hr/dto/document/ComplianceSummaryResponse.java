@@ -0,0 +1,11 @@
+package com.company.hr.dto.document;
+
+import java.util.List;
+
+public record ComplianceSummaryResponse(
+        long totalEmployees,
+        long completeEmployees,
+        long incompleteEmployees,
+        List<ComplianceTypeResponse> documentTypes
+) {
+}
@@ -0,0 +1,10 @@
+package com.company.hr.dto.document;
+
+public record ComplianceTypeResponse(
+        Long documentTypeId,
+        String name,
+        boolean mandatory,
+        long uploaded,
+        long missing
+) {
+}
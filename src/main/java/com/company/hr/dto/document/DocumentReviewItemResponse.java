@@ -0,0 +1,23 @@
+package com.company.hr.dto.document;
+
+import com.company.hr.entity.document.EmployeeDocument;
+
+import java.time.Instant;
+
+public record DocumentReviewItemResponse(
+        Long employeeId,
+        String employeeName,
+        String department,
+        EmployeeDocumentResponse document,
+        Instant claimExpiresAt
+) {
+    public static DocumentReviewItemResponse from(EmployeeDocument d, String fileUrl) {
+        return new DocumentReviewItemResponse(
+                d.getEmployee().getId(),
+                d.getEmployee().getFullName(),
+                d.getEmployee().getDepartment(),
+                EmployeeDocumentResponse.from(d, fileUrl),
+                d.getClaimExpiresAt()
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package com.company.hr.dto.document;
+
+import jakarta.validation.constraints.Size;
+
+public record DocumentReviewRequest(
+        @Size(max = 500) String note
+) {
+}
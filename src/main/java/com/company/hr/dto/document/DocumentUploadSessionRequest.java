@@ -0,0 +1,15 @@
+package com.company.hr.dto.document;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public record DocumentUploadSessionRequest(
+        @NotNull Long documentTypeId,
+        @NotBlank @Size(max = 255) String filename,
+        @Size(max = 200) String contentType,
+        // total size in bytes
+        @Positive long length
+) {
+}
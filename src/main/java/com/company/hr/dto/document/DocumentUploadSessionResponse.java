@@ -0,0 +1,25 @@
+package com.company.hr.dto.document;
+
+import com.company.hr.entity.document.DocumentUploadSession;
+
+import java.time.Instant;
+
+public record DocumentUploadSessionResponse(
+        Long id,
+        Long documentTypeId,
+        String filename,
+        long length,
+        long offset,
+        Instant expiresAt
+) {
+    public static DocumentUploadSessionResponse from(DocumentUploadSession s, Instant expiresAt) {
+        return new DocumentUploadSessionResponse(
+                s.getId(),
+                s.getDocumentType().getId(),
+                s.getOriginalFilename(),
+                s.getUploadLength(),
+                s.getUploadOffset(),
+                expiresAt
+        );
+    }
+}
@@ -1,5 +1,6 @@
 package com.company.hr.dto.document;
 
+import com.company.hr.entity.document.DocumentReviewStatus;
 import com.company.hr.entity.document.EmployeeDocument;
 
 import java.time.Instant;
@@ -13,7 +14,11 @@ public record EmployeeDocumentResponse(
         String fileUrl,
         String contentType,
         long size,
-        Instant uploadedAt
+        String sha256,
+        Instant uploadedAt,
+        DocumentReviewStatus reviewStatus,
+        Instant reviewedAt,
+        String reviewNote
 ) {
     public static EmployeeDocumentResponse from(EmployeeDocument d, String fileUrl) {
         return new EmployeeDocumentResponse(
@@ -25,7 +30,11 @@ public record EmployeeDocumentResponse(
                 fileUrl,
                 d.getContentType(),
                 d.getSize(),
-                d.getUploadedAt()
+                d.getSha256(),
+                d.getUploadedAt(),
+                d.getReviewStatus(),
+                d.getReviewedAt(),
+                d.getReviewNote()
         );
     }
 }
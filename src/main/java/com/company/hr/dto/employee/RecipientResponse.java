@@ -0,0 +1,23 @@
+package com.company.hr.dto.employee;
+
+import com.company.hr.entity.employee.Employee;
+
+public record RecipientResponse(
+        Long id,
+        String fullName,
+        String email,
+        String position,
+        String department,
+        String profilePhotoUrl
+) {
+    public static RecipientResponse from(Employee e, String profilePhotoUrl) {
+        return new RecipientResponse(
+                e.getId(),
+                e.getFullName(),
+                e.getUserAccount() != null ? e.getUserAccount().getEmail() : null,
+                e.getPosition(),
+                e.getDepartment(),
+                profilePhotoUrl
+        );
+    }
+}
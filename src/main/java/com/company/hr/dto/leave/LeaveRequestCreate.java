@@ -8,7 +8,9 @@ import java.time.LocalDate;
 public record LeaveRequestCreate(
         @NotNull LocalDate startDate,
         @NotNull LocalDate endDate,
-        @NotBlank String reason
+        @NotBlank String reason,
+        // id from POST /api/employee/uploads, instead of the attachment part
+        Long attachmentUploadId
 ) {
 }
 
@@ -18,6 +18,9 @@ public record InternalMessageRequest(
         @Size(max = 10000, message = "Body must not exceed 10000 characters")
         String body,
 
-        Long replyToId
+        Long replyToId,
+
+        // id from POST /api/employee/uploads, instead of the attachment part
+        Long attachmentUploadId
 ) {
 }
@@ -0,0 +1,10 @@
+package com.company.hr.dto.message;
+
+// Highlights wrap matched terms in <mark>...</mark>; the rest of the text is returned as stored
+public record MessageSearchHitResponse(
+        InternalMessageResponse message,
+        float rank,
+        String subjectHighlight,
+        String bodyHighlight
+) {
+}
@@ -0,0 +1,28 @@
+package com.company.hr.dto.storage;
+
+import com.company.hr.entity.storage.FileUpload;
+import com.company.hr.entity.storage.UploadKind;
+
+import java.time.Instant;
+
+public record FileUploadResponse(
+        Long id,
+        UploadKind kind,
+        String originalFilename,
+        String contentType,
+        long size,
+        String sha256,
+        Instant createdAt
+) {
+    public static FileUploadResponse from(FileUpload u) {
+        return new FileUploadResponse(
+                u.getId(),
+                u.getKind(),
+                u.getOriginalFilename(),
+                u.getContentType(),
+                u.getSize(),
+                u.getSha256(),
+                u.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.company.hr.dto.system;
+
+import java.time.Instant;
+
+public record MessageArchiveResponse(
+        String month,
+        String fileName,
+        long size,
+        Instant archivedAt
+) {
+}
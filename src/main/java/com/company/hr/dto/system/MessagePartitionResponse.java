@@ -0,0 +1,8 @@
+package com.company.hr.dto.system;
+
+public record MessagePartitionResponse(
+        String name,
+        String month,
+        boolean restored
+) {
+}
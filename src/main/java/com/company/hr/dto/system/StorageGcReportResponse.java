@@ -0,0 +1,16 @@
+package com.company.hr.dto.system;
+
+import java.time.Instant;
+
+// One pass of the orphan file collector; in dry-run mode the counts are what would have been moved / deleted
+public record StorageGcReportResponse(
+        boolean dryRun,
+        Instant startedAt,
+        Instant finishedAt,
+        long scannedFiles,
+        long orphanFiles,
+        long orphanBytes,
+        long purgedFiles,
+        long reclaimedBytes
+) {
+}
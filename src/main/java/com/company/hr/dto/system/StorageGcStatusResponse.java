@@ -0,0 +1,9 @@
+package com.company.hr.dto.system;
+
+public record StorageGcStatusResponse(
+        boolean enabled,
+        boolean dryRun,
+        StorageGcReportResponse lastPass,
+        StorageGcReportResponse currentPass
+) {
+}
@@ -0,0 +1,13 @@
+package com.company.hr.dto.system;
+
+public record UnreadCacheStatsResponse(
+        boolean enabled,
+        long cachedEmployees,
+        long hits,
+        long misses,
+        double hitRatio,
+        double verifyRate,
+        long verifications,
+        long mismatches
+) {
+}
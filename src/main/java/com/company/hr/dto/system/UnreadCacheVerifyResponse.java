@@ -0,0 +1,11 @@
+package com.company.hr.dto.system;
+
+import java.util.List;
+
+public record UnreadCacheVerifyResponse(
+        long checked,
+        long mismatches,
+        // Employee ids whose cached count differed from the database and was repaired
+        List<Long> repairedEmployeeIds
+) {
+}
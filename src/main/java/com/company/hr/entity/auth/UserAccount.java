@@ -27,9 +27,6 @@ public class UserAccount {
     @Column(nullable = false, length = 20)
     private Role role = Role.EMPLOYEE;
 
-    @OneToOne(mappedBy = "userAccount")
-    private com.company.hr.entity.employee.Employee employee;
-
     @Column(nullable = false)
     private Instant createdAt = Instant.now();
 
@@ -63,10 +60,6 @@ public class UserAccount {
         return role;
     }
 
-    public com.company.hr.entity.employee.Employee getEmployee() {
-        return employee;
-    }
-
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,7 @@
+package com.company.hr.entity.document;
+
+public enum DocumentReviewStatus {
+    PENDING,
+    VERIFIED,
+    REJECTED
+}
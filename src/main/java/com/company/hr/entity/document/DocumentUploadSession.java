@@ -0,0 +1,97 @@
+package com.company.hr.entity.document;
+
+import com.company.hr.entity.employee.Employee;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Resumable document upload in progress; chunks are appended to partialPath until uploadOffset reaches uploadLength
+@Entity
+@Table(name = "document_upload_sessions")
+public class DocumentUploadSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_type_id", nullable = false)
+    private DocumentType documentType;
+
+    @Column(nullable = false)
+    private String originalFilename;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private String partialPath;
+
+    @Column(nullable = false)
+    private long uploadLength;
+
+    @Column(nullable = false)
+    private long uploadOffset;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(nullable = false)
+    private Instant updatedAt = Instant.now();
+
+    protected DocumentUploadSession() {
+    }
+
+    public DocumentUploadSession(Employee employee, DocumentType documentType, String originalFilename,
+                                 String contentType, String partialPath, long uploadLength) {
+        this.employee = employee;
+        this.documentType = documentType;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.partialPath = partialPath;
+        this.uploadLength = uploadLength;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public DocumentType getDocumentType() {
+        return documentType;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getPartialPath() {
+        return partialPath;
+    }
+
+    public long getUploadLength() {
+        return uploadLength;
+    }
+
+    public long getUploadOffset() {
+        return uploadOffset;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -7,17 +7,21 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "employee_documents")
+@NamedEntityGraph(name = EmployeeDocument.WITH_TYPE, attributeNodes = @NamedAttributeNode("documentType"))
 public class EmployeeDocument {
 
+    // Employee's own document list
+    public static final String WITH_TYPE = "EmployeeDocument.withType";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
     private Employee employee;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "document_type_id", nullable = false)
     private DocumentType documentType;
 
@@ -33,19 +37,39 @@ public class EmployeeDocument {
     @Column(nullable = false)
     private long size;
 
+    @Column(length = 64)
+    private String sha256;
+
     @Column(nullable = false)
     private Instant uploadedAt = Instant.now();
 
+    // Review queue; claims and decisions are written by DocumentReviewRepository
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DocumentReviewStatus reviewStatus = DocumentReviewStatus.PENDING;
+
+    private Long claimedById;
+
+    private Instant claimExpiresAt;
+
+    private Long reviewedById;
+
+    private Instant reviewedAt;
+
+    @Column(length = 500)
+    private String reviewNote;
+
     protected EmployeeDocument() {
     }
 
-    public EmployeeDocument(Employee employee, DocumentType documentType, String originalFilename, String storedPath, String contentType, long size) {
+    public EmployeeDocument(Employee employee, DocumentType documentType, String originalFilename, String storedPath, String contentType, long size, String sha256) {
         this.employee = employee;
         this.documentType = documentType;
         this.originalFilename = originalFilename;
         this.storedPath = storedPath;
         this.contentType = contentType;
         this.size = size;
+        this.sha256 = sha256;
     }
 
     public Long getId() {
@@ -76,8 +100,36 @@ public class EmployeeDocument {
         return size;
     }
 
+    public String getSha256() {
+        return sha256;
+    }
+
     public Instant getUploadedAt() {
         return uploadedAt;
     }
+
+    public DocumentReviewStatus getReviewStatus() {
+        return reviewStatus;
+    }
+
+    public Long getClaimedById() {
+        return claimedById;
+    }
+
+    public Instant getClaimExpiresAt() {
+        return claimExpiresAt;
+    }
+
+    public Long getReviewedById() {
+        return reviewedById;
+    }
+
+    public Instant getReviewedAt() {
+        return reviewedAt;
+    }
+
+    public String getReviewNote() {
+        return reviewNote;
+    }
 }
 
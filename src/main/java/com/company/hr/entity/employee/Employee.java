@@ -8,13 +8,17 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "employees")
+@NamedEntityGraph(name = Employee.WITH_USER_ACCOUNT, attributeNodes = @NamedAttributeNode("userAccount"))
 public class Employee {
 
+    // EmployeeResponse shows the account email
+    public static final String WITH_USER_ACCOUNT = "Employee.withUserAccount";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", unique = true)
     private UserAccount userAccount;
 
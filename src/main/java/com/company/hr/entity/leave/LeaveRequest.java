@@ -8,13 +8,17 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "leave_requests")
+@NamedEntityGraph(name = LeaveRequest.WITH_EMPLOYEE, attributeNodes = @NamedAttributeNode("employee"))
 public class LeaveRequest {
 
+    // Leave lists and status updates: responses show the employee's name
+    public static final String WITH_EMPLOYEE = "LeaveRequest.withEmployee";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
     private Employee employee;
 
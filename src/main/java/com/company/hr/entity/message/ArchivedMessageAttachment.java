@@ -0,0 +1,46 @@
+package com.company.hr.entity.message;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Attachment path of a message whose month was archived out of internal_messages. The file stays
+ * in storage for a later restore, so the orphan file collector treats these paths as referenced.
+ * Rows are written and removed in bulk by MessagePartitionRepository.
+ */
+@Entity
+@Table(
+        name = "archived_message_attachments",
+        indexes = {
+                @Index(name = "idx_archived_message_attachments_month", columnList = "archive_month")
+        }
+)
+public class ArchivedMessageAttachment {
+
+    @Id
+    @Column(columnDefinition = "TEXT")
+    private String path;
+
+    // yyyy-MM of the archived partition
+    @Column(name = "archive_month", nullable = false, length = 7)
+    private String archiveMonth;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    protected ArchivedMessageAttachment() {
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getArchiveMonth() {
+        return archiveMonth;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -7,17 +7,28 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "internal_messages")
+@NamedEntityGraph(
+        name = InternalMessage.WITH_PARTICIPANTS,
+        attributeNodes = {
+                @NamedAttributeNode(value = "sender", subgraph = "employee"),
+                @NamedAttributeNode(value = "receiver", subgraph = "employee")
+        },
+        subgraphs = @NamedSubgraph(name = "employee", attributeNodes = @NamedAttributeNode("userAccount"))
+)
 public class InternalMessage {
 
+    // Inbox rows, thread view and single-message responses: sender / receiver with their accounts
+    public static final String WITH_PARTICIPANTS = "InternalMessage.withParticipants";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sender_id", nullable = false)
     private Employee sender;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "receiver_id", nullable = false)
     private Employee receiver;
 
@@ -27,13 +38,19 @@ public class InternalMessage {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String body;
 
-    @ManyToOne
-    @JoinColumn(name = "reply_to_id")
+    // No FK: the table is partitioned on created_at, so id alone is not a referenceable key.
+    // Never fetched: responses only need the id, which the proxy holds (and the target may be archived).
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reply_to_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private InternalMessage replyTo;
 
     @Column(name = "thread_id")
     private Long threadId;
 
+    // Shared by every copy written by one send, so the sent box can show one row per send
+    @Column(name = "batch_id")
+    private Long batchId;
+
     @Column(length = 500)
     private String attachmentPath;
 
@@ -94,6 +111,14 @@ public class InternalMessage {
         this.threadId = threadId;
     }
 
+    public Long getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(Long batchId) {
+        this.batchId = batchId;
+    }
+
     public String getAttachmentPath() {
         return attachmentPath;
     }
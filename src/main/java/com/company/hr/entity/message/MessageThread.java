@@ -0,0 +1,59 @@
+package com.company.hr.entity.message;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Per-thread summary maintained by InternalMessageService alongside internal_messages.
+ * The id is the thread id shared by every message of the conversation.
+ */
+@Entity
+@Table(name = "message_threads")
+public class MessageThread {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_activity_at")
+    private Instant lastActivityAt;
+
+    @Column(nullable = false)
+    private long messageCount;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    protected MessageThread() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public Instant getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,83 @@
+package com.company.hr.entity.message;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One row per (thread, employee) that has sent or received a message in the thread.
+ * Holds the employee's unread count and latest received/sent message so mailbox
+ * listings and access checks read a single indexed row per thread.
+ */
+@Entity
+@Table(
+        name = "thread_participants",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_thread_participants_thread_employee", columnNames = {"thread_id", "employee_id"})
+        },
+        indexes = {
+                @Index(name = "idx_thread_participants_inbox", columnList = "employee_id, last_received_at DESC, last_received_message_id DESC")
+        }
+)
+public class ThreadParticipant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "thread_id", nullable = false)
+    private Long threadId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private int unreadCount;
+
+    @Column(name = "last_received_message_id")
+    private Long lastReceivedMessageId;
+
+    @Column(name = "last_received_at")
+    private Instant lastReceivedAt;
+
+    @Column(name = "last_sent_message_id")
+    private Long lastSentMessageId;
+
+    @Column(name = "last_sent_at")
+    private Instant lastSentAt;
+
+    protected ThreadParticipant() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public Long getLastReceivedMessageId() {
+        return lastReceivedMessageId;
+    }
+
+    public Instant getLastReceivedAt() {
+        return lastReceivedAt;
+    }
+
+    public Long getLastSentMessageId() {
+        return lastSentMessageId;
+    }
+
+    public Instant getLastSentAt() {
+        return lastSentAt;
+    }
+}
@@ -0,0 +1,92 @@
+package com.company.hr.entity.storage;
+
+import com.company.hr.entity.employee.Employee;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// A streamed file waiting to be attached to a leave request or message; the row is removed when it is used
+@Entity
+@Table(name = "file_uploads")
+public class FileUpload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private UploadKind kind;
+
+    @Column(nullable = false)
+    private String storedPath;
+
+    @Column(nullable = false)
+    private String originalFilename;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    protected FileUpload() {
+    }
+
+    public FileUpload(Employee employee, UploadKind kind, String storedPath, String originalFilename,
+                      String contentType, long size, String sha256) {
+        this.employee = employee;
+        this.kind = kind;
+        this.storedPath = storedPath;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public UploadKind getKind() {
+        return kind;
+    }
+
+    public String getStoredPath() {
+        return storedPath;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.company.hr.entity.storage;
+
+public enum UploadKind {
+    LEAVE_ATTACHMENT,
+    MESSAGE_ATTACHMENT
+}
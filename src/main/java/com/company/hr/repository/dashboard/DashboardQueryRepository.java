@@ -0,0 +1,112 @@
+package com.company.hr.repository.dashboard;
+
+import com.company.hr.dto.leave.LeaveRequestResponse;
+import com.company.hr.entity.document.DocumentReviewStatus;
+import com.company.hr.entity.leave.LeaveStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Aggregate read queries behind the admin and employee dashboards.
+ *
+ * Every figure is computed by the database in a fixed number of statements, independent of the
+ * number of employees or document types. Document completeness per employee comes from
+ * DocumentComplianceMatrix, not from here.
+ */
+@Repository
+public class DashboardQueryRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String totalsSql;
+    private final String positionsSql;
+    private final String employeeSql;
+
+    public DashboardQueryRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String s = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.totalsSql = ("SELECT (SELECT COUNT(*) FROM %1$semployees),"
+                + " (SELECT COUNT(*) FROM %1$sdocument_types),"
+                + " (SELECT COUNT(*) FROM %1$semployee_documents),"
+                + " l.pending, l.approved, l.rejected,"
+                + " (SELECT COUNT(*) FROM %1$semployee_documents WHERE review_status = ?)"
+                + " FROM (SELECT COUNT(*) FILTER (WHERE status = ?) AS pending,"
+                + "   COUNT(*) FILTER (WHERE status = ?) AS approved,"
+                + "   COUNT(*) FILTER (WHERE status = ?) AS rejected FROM %1$sleave_requests) l").formatted(s);
+        this.positionsSql = ("SELECT position, COUNT(*) FROM %1$semployees WHERE btrim(position) <> ''"
+                + " GROUP BY position ORDER BY COUNT(*) DESC, position").formatted(s);
+        this.employeeSql = ("SELECT e.id, e.full_name,"
+                + " (SELECT COUNT(*) FROM %1$sdocument_types),"
+                + " (SELECT COUNT(*) FROM %1$semployee_documents d WHERE d.employee_id = e.id),"
+                + " (SELECT COUNT(*) FROM %1$sdocument_types WHERE mandatory),"
+                + " (SELECT COUNT(DISTINCT d.document_type_id) FROM %1$semployee_documents d"
+                + "   JOIN %1$sdocument_types t ON t.id = d.document_type_id AND t.mandatory WHERE d.employee_id = e.id),"
+                + " lc.pending, lc.approved,"
+                + " ll.id, ll.start_date, ll.end_date, ll.reason, ll.status, ll.attachment_path, ll.created_at, ll.updated_at"
+                + " FROM %1$semployees e"
+                + " CROSS JOIN LATERAL (SELECT COUNT(*) FILTER (WHERE status = ?) AS pending,"
+                + "   COUNT(*) FILTER (WHERE status = ?) AS approved FROM %1$sleave_requests WHERE employee_id = e.id) lc"
+                + " LEFT JOIN LATERAL (SELECT * FROM %1$sleave_requests WHERE employee_id = e.id"
+                + "   ORDER BY created_at DESC, id DESC LIMIT 1) ll ON true"
+                + " WHERE e.user_id = ?").formatted(s);
+    }
+
+    public Totals totals() {
+        return jdbcTemplate.queryForObject(totalsSql, (rs, rowNum) -> new Totals(
+                        rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6),
+                        rs.getLong(7)),
+                DocumentReviewStatus.PENDING.name(),
+                LeaveStatus.PENDING.name(), LeaveStatus.APPROVED.name(), LeaveStatus.REJECTED.name());
+    }
+
+    // Largest group first
+    public Map<String, Long> positionDistribution() {
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        jdbcTemplate.query(positionsSql, rs -> {
+            distribution.put(rs.getString(1), rs.getLong(2));
+        });
+        return distribution;
+    }
+
+    // Empty when the account has no employee profile yet
+    public Optional<EmployeeTotals> employeeTotals(Long userId) {
+        return jdbcTemplate.query(employeeSql, (rs, rowNum) -> {
+            LeaveRequestResponse latest = null;
+            long leaveId = rs.getLong(9);
+            if (!rs.wasNull()) {
+                latest = new LeaveRequestResponse(leaveId, rs.getLong(1), rs.getString(2),
+                        rs.getObject(10, LocalDate.class), rs.getObject(11, LocalDate.class), rs.getString(12),
+                        LeaveStatus.valueOf(rs.getString(13)), rs.getString(14), null,
+                        instant(rs, 15), instant(rs, 16));
+            }
+            return new EmployeeTotals(rs.getLong(1), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6),
+                    rs.getLong(7), rs.getLong(8), latest);
+        }, LeaveStatus.PENDING.name(), LeaveStatus.APPROVED.name(), userId).stream().findFirst();
+    }
+
+    // Timestamps are written as UTC
+    private static Instant instant(ResultSet rs, int column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.toInstant();
+    }
+
+    public record Totals(long employees, long documentTypes, long documents,
+                         long pendingLeaves, long approvedLeaves, long rejectedLeaves, long documentsPendingReview) {
+    }
+
+    // latestLeave has no attachment URL; the service signs it
+    public record EmployeeTotals(long employeeId, long documentTypes, long documents,
+                                 long mandatoryTypes, long mandatoryUploaded,
+                                 long pendingLeaves, long approvedLeaves, LeaveRequestResponse latestLeave) {
+    }
+}
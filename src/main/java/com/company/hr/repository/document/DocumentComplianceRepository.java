@@ -0,0 +1,64 @@
+package com.company.hr.repository.document;
+
+import com.company.hr.dto.document.DocumentTypeResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC loads for the document compliance matrix: which document types each employee has
+ * uploaded, as (employee id, document type id) pairs. Employees without documents are returned
+ * with an empty list.
+ */
+@Repository
+public class DocumentComplianceRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String typesSql;
+    private final String uploadedSql;
+    private final String uploadedByEmployeeSql;
+
+    public DocumentComplianceRepository(JdbcTemplate jdbcTemplate,
+                                        @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String s = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.typesSql = "SELECT id, name, description, mandatory FROM %sdocument_types ORDER BY id".formatted(s);
+        this.uploadedSql = ("SELECT e.id, d.document_type_id FROM %1$semployees e"
+                + " LEFT JOIN %1$semployee_documents d ON d.employee_id = e.id").formatted(s);
+        this.uploadedByEmployeeSql = uploadedSql + " WHERE e.id = ?";
+    }
+
+    public List<DocumentTypeResponse> findTypes() {
+        return jdbcTemplate.query(typesSql, (rs, rowNum) ->
+                new DocumentTypeResponse(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBoolean(4)));
+    }
+
+    public Map<Long, List<Long>> findUploadedTypeIds() {
+        Map<Long, List<Long>> uploaded = new HashMap<>();
+        jdbcTemplate.query(uploadedSql, collector(uploaded));
+        return uploaded;
+    }
+
+    // Null when the employee no longer exists
+    public List<Long> findUploadedTypeIds(Long employeeId) {
+        Map<Long, List<Long>> uploaded = new HashMap<>();
+        jdbcTemplate.query(uploadedByEmployeeSql, collector(uploaded), employeeId);
+        return uploaded.get(employeeId);
+    }
+
+    private static RowCallbackHandler collector(Map<Long, List<Long>> uploaded) {
+        return rs -> {
+            List<Long> types = uploaded.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>());
+            long typeId = rs.getLong(2);
+            if (!rs.wasNull()) {
+                types.add(typeId);
+            }
+        };
+    }
+}
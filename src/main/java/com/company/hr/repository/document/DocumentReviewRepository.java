@@ -0,0 +1,79 @@
+package com.company.hr.repository.document;
+
+import com.company.hr.entity.document.DocumentReviewStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Plain JDBC claims and decisions for the document review queue.
+ *
+ * A claim takes the oldest pending documents that are unclaimed or whose lease has run out with
+ * FOR UPDATE SKIP LOCKED, so concurrent reviewers never wait on each other's rows and never get
+ * the same document. The row locks last only for the single statement's transaction; after that
+ * the claim is the claimed_by_id / claim_expires_at pair. A decision only applies while the
+ * reviewer still holds an unexpired claim. Claims of one reviewer are serialised by lockReviewer(),
+ * so counting open claims and claiming more cannot overshoot the cap.
+ */
+@Repository
+public class DocumentReviewRepository {
+
+    private static final String PENDING = DocumentReviewStatus.PENDING.name();
+    // First key of the two-key advisory lock; the second is the reviewer id
+    private static final int REVIEWER_LOCK = 0x6472_7677;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+
+    public DocumentReviewRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = (schema == null || schema.isBlank() ? "" : schema + ".") + "employee_documents";
+    }
+
+    // Held until the surrounding transaction ends
+    public void lockReviewer(Long reviewerId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> {
+        }, REVIEWER_LOCK, reviewerId.intValue());
+    }
+
+    // Returns the ids claimed, oldest upload first
+    public List<Long> claim(Long reviewerId, int count, Instant now, Instant expiresAt) {
+        return jdbcTemplate.queryForList(("UPDATE %1$s d SET claimed_by_id = ?, claim_expires_at = ?"
+                        + " FROM (SELECT id FROM %1$s WHERE review_status = ?"
+                        + "   AND (claim_expires_at IS NULL OR claim_expires_at <= ?)"
+                        + "   ORDER BY uploaded_at, id LIMIT ? FOR UPDATE SKIP LOCKED) c"
+                        + " WHERE d.id = c.id RETURNING d.id").formatted(table),
+                Long.class, reviewerId, utc(expiresAt), PENDING, utc(now), count);
+    }
+
+    public long countActiveClaims(Long reviewerId, Instant now) {
+        Long count = jdbcTemplate.queryForObject(("SELECT COUNT(*) FROM %s WHERE claimed_by_id = ? AND review_status = ?"
+                + " AND claim_expires_at > ?").formatted(table), Long.class, reviewerId, PENDING, utc(now));
+        return count == null ? 0 : count;
+    }
+
+    // 1 when applied; 0 when the document is not pending or the claim expired or belongs to someone else
+    public int decide(Long documentId, Long reviewerId, DocumentReviewStatus status, String note, Instant now) {
+        return jdbcTemplate.update(("UPDATE %s SET review_status = ?, reviewed_by_id = ?, reviewed_at = ?, review_note = ?,"
+                        + " claimed_by_id = NULL, claim_expires_at = NULL"
+                        + " WHERE id = ? AND review_status = ? AND claimed_by_id = ? AND claim_expires_at > ?").formatted(table),
+                status.name(), reviewerId, utc(now), note, documentId, PENDING, reviewerId, utc(now));
+    }
+
+    public int release(Long documentId, Long reviewerId) {
+        return jdbcTemplate.update(("UPDATE %s SET claimed_by_id = NULL, claim_expires_at = NULL"
+                        + " WHERE id = ? AND review_status = ? AND claimed_by_id = ?").formatted(table),
+                documentId, PENDING, reviewerId);
+    }
+
+    // Timestamps are written as UTC
+    private static OffsetDateTime utc(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.hr.repository.document;
+
+import com.company.hr.entity.document.DocumentUploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface DocumentUploadSessionRepository extends JpaRepository<DocumentUploadSession, Long> {
+
+    Optional<DocumentUploadSession> findByIdAndEmployeeId(Long id, Long employeeId);
+
+    long countByEmployeeId(Long employeeId);
+
+    // Finalize: serializes with a concurrent finalize or cancel of the same session
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DocumentUploadSession s WHERE s.id = :id AND s.employee.id = :employeeId")
+    Optional<DocumentUploadSession> findForUpdate(@Param("id") Long id, @Param("employeeId") Long employeeId);
+
+    // Chunks are written outside a transaction; the offset only moves forward from the value the chunk started at
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE {h-schema}document_upload_sessions SET upload_offset = :newOffset, updated_at = :now"
+            + " WHERE id = :id AND upload_offset = :expectedOffset", nativeQuery = true)
+    int advanceOffset(@Param("id") Long id, @Param("expectedOffset") long expectedOffset,
+                      @Param("newOffset") long newOffset, @Param("now") Instant now);
+
+    List<DocumentUploadSession> findTop500ByUpdatedAtBeforeOrderByUpdatedAt(Instant cutoff);
+
+    // Cleanup: skips a session that received a chunk after it was selected
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM {h-schema}document_upload_sessions WHERE id = :id AND updated_at < :cutoff", nativeQuery = true)
+    int deleteIfIdle(@Param("id") Long id, @Param("cutoff") Instant cutoff);
+}
@@ -1,17 +1,68 @@
 package com.company.hr.repository.document;
 
+import com.company.hr.entity.document.DocumentReviewStatus;
 import com.company.hr.entity.document.DocumentType;
 import com.company.hr.entity.document.EmployeeDocument;
 import com.company.hr.entity.employee.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface EmployeeDocumentRepository extends JpaRepository<EmployeeDocument, Long> {
+
+    // uploadedFrom / uploadedTo are never null: a null timestamp parameter has no type for Postgres
+    String UPLOAD_FILTER = " AND (:department IS NULL OR LOWER(e.department) = LOWER(:department))"
+            + " AND (:documentTypeId IS NULL OR d.documentType.id = :documentTypeId)"
+            + " AND d.uploadedAt >= :uploadedFrom AND d.uploadedAt < :uploadedTo";
+
+    @EntityGraph(EmployeeDocument.WITH_TYPE)
     List<EmployeeDocument> findByEmployee(Employee employee);
-    List<EmployeeDocument> findByDocumentType(DocumentType documentType);
+
     boolean existsByEmployeeAndDocumentType(Employee employee, DocumentType documentType);
     Optional<EmployeeDocument> findByEmployeeAndDocumentType(Employee employee, DocumentType documentType);
-}
 
+    // Admin document list, one page of employees: ids of employees with a matching document, grouped in SQL
+    @Query("SELECT e.id FROM EmployeeDocument d JOIN d.employee e"
+            + " WHERE e.id > :afterId" + UPLOAD_FILTER
+            + " GROUP BY e.id ORDER BY e.id")
+    List<Long> findUploadEmployeeIds(@Param("afterId") long afterId,
+                                     @Param("department") String department,
+                                     @Param("documentTypeId") Long documentTypeId,
+                                     @Param("uploadedFrom") Instant uploadedFrom,
+                                     @Param("uploadedTo") Instant uploadedTo,
+                                     Pageable page);
+
+    // The matching documents of those employees with employee, account and type in one query
+    @Query("SELECT d FROM EmployeeDocument d JOIN FETCH d.employee e LEFT JOIN FETCH e.userAccount"
+            + " JOIN FETCH d.documentType"
+            + " WHERE e.id IN :employeeIds" + UPLOAD_FILTER
+            + " ORDER BY e.id, d.documentType.id, d.id")
+    List<EmployeeDocument> findUploadsOf(@Param("employeeIds") Collection<Long> employeeIds,
+                                         @Param("department") String department,
+                                         @Param("documentTypeId") Long documentTypeId,
+                                         @Param("uploadedFrom") Instant uploadedFrom,
+                                         @Param("uploadedTo") Instant uploadedTo);
+
+    // Review queue: claimed documents with employee and type, oldest upload first
+    @Query("SELECT d FROM EmployeeDocument d JOIN FETCH d.employee JOIN FETCH d.documentType"
+            + " WHERE d.id IN :ids ORDER BY d.uploadedAt, d.id")
+    List<EmployeeDocument> findForReview(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT d FROM EmployeeDocument d JOIN FETCH d.employee JOIN FETCH d.documentType"
+            + " WHERE d.claimedById = :reviewerId AND d.reviewStatus = :status AND d.claimExpiresAt > :now"
+            + " ORDER BY d.uploadedAt, d.id")
+    List<EmployeeDocument> findClaimedBy(@Param("reviewerId") Long reviewerId,
+                                         @Param("status") DocumentReviewStatus status,
+                                         @Param("now") Instant now);
+
+    // File download: content type recorded at upload
+    @Query(value = "SELECT content_type FROM {h-schema}employee_documents WHERE stored_path = :storedPath LIMIT 1", nativeQuery = true)
+    Optional<String> findContentTypeByStoredPath(@Param("storedPath") String storedPath);
+}
@@ -2,11 +2,22 @@ package com.company.hr.repository.employee;
 
 import com.company.hr.entity.auth.UserAccount;
 import com.company.hr.entity.employee.Employee;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+
+    @Override
+    @EntityGraph(Employee.WITH_USER_ACCOUNT)
+    List<Employee> findAll();
+
+    @Override
+    @EntityGraph(Employee.WITH_USER_ACCOUNT)
+    Optional<Employee> findById(Long id);
+
+    @EntityGraph(Employee.WITH_USER_ACCOUNT)
     Optional<Employee> findByUserAccount(UserAccount userAccount);
 }
-
@@ -3,12 +3,24 @@ package com.company.hr.repository.leave;
 import com.company.hr.entity.employee.Employee;
 import com.company.hr.entity.leave.LeaveRequest;
 import com.company.hr.entity.leave.LeaveStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long> {
+
+    @Override
+    @EntityGraph(LeaveRequest.WITH_EMPLOYEE)
+    List<LeaveRequest> findAll();
+
+    @Override
+    @EntityGraph(LeaveRequest.WITH_EMPLOYEE)
+    Optional<LeaveRequest> findById(Long id);
+
+    @EntityGraph(LeaveRequest.WITH_EMPLOYEE)
     List<LeaveRequest> findByEmployee(Employee employee);
+
     long countByStatus(LeaveStatus status);
 }
-
@@ -0,0 +1,138 @@
+package com.company.hr.repository.message;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for multi-recipient sends. InternalMessage uses IDENTITY ids, which
+ * stops Hibernate from batching inserts, so fan-out rows are written here in one batch
+ * with ids reserved from the table's sequence beforehand.
+ *
+ * Buffered read receipts are applied here as well: one UPDATE over unnest()ed arrays for
+ * the messages and one for the matching thread_participants counters.
+ */
+@Repository
+public class InternalMessageBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO %s"
+            + " (id, sender_id, receiver_id, subject, body, reply_to_id, thread_id, batch_id,"
+            + " attachment_path, attachment_name, attachment_type, attachment_size, is_read, created_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?)";
+
+    private static final String MARK_READ_SQL = "UPDATE %s m SET is_read = true"
+            + " FROM unnest(?, ?) AS r(id, receiver_id)"
+            + " WHERE m.id = r.id AND m.receiver_id = r.receiver_id AND m.is_read = false"
+            + " RETURNING m.id, m.receiver_id, m.thread_id";
+
+    private static final String DECREMENT_UNREAD_SQL = "UPDATE %s tp"
+            + " SET unread_count = GREATEST(tp.unread_count - d.n, 0)"
+            + " FROM unnest(?, ?, ?) AS d(thread_id, employee_id, n)"
+            + " WHERE tp.thread_id = d.thread_id AND tp.employee_id = d.employee_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String participantsTable;
+
+    public InternalMessageBatchRepository(JdbcTemplate jdbcTemplate,
+                                          @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.table = prefix + "internal_messages";
+        this.participantsTable = prefix + "thread_participants";
+    }
+
+    // Reserves count ids from the id sequence in a single round trip, ascending
+    public List<Long> reserveIds(int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?) ORDER BY 1",
+                Long.class, table, count);
+    }
+
+    public void insertAll(List<NewMessageRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL.formatted(table), rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.id());
+            ps.setLong(2, row.senderId());
+            ps.setLong(3, row.receiverId());
+            ps.setString(4, row.subject());
+            ps.setString(5, row.body());
+            ps.setObject(6, row.replyToId(), Types.BIGINT);
+            ps.setLong(7, row.threadId());
+            ps.setLong(8, row.batchId());
+            ps.setString(9, row.attachmentPath());
+            ps.setString(10, row.attachmentName());
+            ps.setString(11, row.attachmentType());
+            ps.setObject(12, row.attachmentSize(), Types.BIGINT);
+            ps.setObject(13, OffsetDateTime.ofInstant(row.createdAt(), ZoneOffset.UTC));
+        });
+    }
+
+    // Marks the given (messageId -> receiverId) pairs read; returns only rows that were still unread
+    public List<ReadMark> markRead(Map<Long, Long> receiverByMessageId) {
+        if (receiverByMessageId.isEmpty()) return List.of();
+        Long[] ids = new Long[receiverByMessageId.size()];
+        Long[] receiverIds = new Long[ids.length];
+        int i = 0;
+        for (Map.Entry<Long, Long> e : receiverByMessageId.entrySet()) {
+            ids[i] = e.getKey();
+            receiverIds[i++] = e.getValue();
+        }
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(MARK_READ_SQL.formatted(table));
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("bigint", receiverIds));
+            return ps;
+        }, (rs, rowNum) -> new ReadMark(rs.getLong(1), rs.getLong(2), rs.getObject(3, Long.class)));
+    }
+
+    public void decrementUnread(List<UnreadDelta> deltas) {
+        if (deltas.isEmpty()) return;
+        Long[] threadIds = new Long[deltas.size()];
+        Long[] employeeIds = new Long[deltas.size()];
+        Integer[] counts = new Integer[deltas.size()];
+        for (int i = 0; i < deltas.size(); i++) {
+            UnreadDelta d = deltas.get(i);
+            threadIds[i] = d.threadId();
+            employeeIds[i] = d.employeeId();
+            counts[i] = d.count();
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DECREMENT_UNREAD_SQL.formatted(participantsTable));
+            ps.setArray(1, con.createArrayOf("bigint", threadIds));
+            ps.setArray(2, con.createArrayOf("bigint", employeeIds));
+            ps.setArray(3, con.createArrayOf("integer", counts));
+            return ps;
+        });
+    }
+
+    public record ReadMark(Long messageId, Long receiverId, Long threadId) {
+    }
+
+    public record UnreadDelta(Long threadId, Long employeeId, int count) {
+    }
+
+    public record NewMessageRow(
+            Long id,
+            Long senderId,
+            Long receiverId,
+            String subject,
+            String body,
+            Long replyToId,
+            Long threadId,
+            Long batchId,
+            String attachmentPath,
+            String attachmentName,
+            String attachmentType,
+            Long attachmentSize,
+            Instant createdAt
+    ) {
+    }
+}
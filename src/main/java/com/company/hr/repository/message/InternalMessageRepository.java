@@ -2,26 +2,154 @@ package com.company.hr.repository.message;
 
 import com.company.hr.entity.employee.Employee;
 import com.company.hr.entity.message.InternalMessage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface InternalMessageRepository extends JpaRepository<InternalMessage, Long> {
     List<InternalMessage> findByReceiverOrderByCreatedAtDesc(Employee receiver);
-    List<InternalMessage> findBySenderOrderByCreatedAtDesc(Employee sender);
     long countByReceiverAndIsReadFalse(Employee receiver);
+    long countByReceiverIdAndIsReadFalse(Long receiverId);
 
-    boolean existsByThreadIdAndSenderOrThreadIdAndReceiver(Long threadId, Employee sender, Long threadId2, Employee receiver);
+    @Modifying
+    @Query(value = "UPDATE {h-schema}internal_messages SET is_read = true"
+            + " WHERE thread_id = :threadId AND receiver_id = :receiverId AND is_read = false", nativeQuery = true)
+    int markThreadRead(@Param("threadId") Long threadId, @Param("receiverId") Long receiverId);
 
+    @Query("SELECT m.receiver.id AS receiverId, COUNT(m) AS unread FROM InternalMessage m"
+            + " WHERE m.isRead = false AND m.receiver.id IN :receiverIds GROUP BY m.receiver.id")
+    List<UnreadCountRow> countUnreadByReceiverIds(@Param("receiverIds") Collection<Long> receiverIds);
+
+    @EntityGraph(InternalMessage.WITH_PARTICIPANTS)
     List<InternalMessage> findByThreadIdOrderByCreatedAtAsc(Long threadId);
 
-    // Find all unique thread IDs where the employee is either sender or receiver
-    @Query("SELECT DISTINCT m.threadId FROM InternalMessage m WHERE (m.sender = :employee OR m.receiver = :employee) AND m.threadId IS NOT NULL")
-    List<Long> findDistinctThreadIdsForEmployee(@Param("employee") Employee employee);
+    // File download: one upload is shared by every copy of a broadcast
+    @Query(value = "SELECT attachment_type FROM {h-schema}internal_messages"
+            + " WHERE attachment_path = :path AND attachment_type IS NOT NULL LIMIT 1", nativeQuery = true)
+    Optional<String> findAttachmentTypeByPath(@Param("path") String path);
+
+    @EntityGraph(InternalMessage.WITH_PARTICIPANTS)
+    Optional<InternalMessage> findWithParticipantsById(Long id);
+
+    // Not dirty-checked: changes to the returned entity are never flushed
+    @EntityGraph(InternalMessage.WITH_PARTICIPANTS)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<InternalMessage> findReadOnlyWithParticipantsById(Long id);
+
+    // Unordered; page queries below return ids only and the rows are loaded through this
+    @EntityGraph(InternalMessage.WITH_PARTICIPANTS)
+    List<InternalMessage> findWithParticipantsByIdIn(Collection<Long> ids);
+
+    // Id of the latest message received per thread, newest thread first (first page), read through thread_participants.
+    // Matching created_at as well lets the planner prune internal_messages partitions per row.
+    @Query(value = "SELECT m.id FROM {h-schema}thread_participants tp"
+            + " JOIN {h-schema}internal_messages m ON m.id = tp.last_received_message_id AND m.created_at = tp.last_received_at"
+            + " WHERE tp.employee_id = :receiverId AND tp.last_received_message_id IS NOT NULL"
+            + " ORDER BY tp.last_received_at DESC, tp.last_received_message_id DESC"
+            + " LIMIT :limit", nativeQuery = true)
+    List<Long> findLatestReceivedIdsPerThread(@Param("receiverId") Long receiverId,
+                                              @Param("limit") int limit);
+
+    // Same as findLatestReceivedIdsPerThread, continuing after the (createdAt, id) keyset position
+    @Query(value = "SELECT m.id FROM {h-schema}thread_participants tp"
+            + " JOIN {h-schema}internal_messages m ON m.id = tp.last_received_message_id AND m.created_at = tp.last_received_at"
+            + " WHERE tp.employee_id = :receiverId AND tp.last_received_message_id IS NOT NULL"
+            + " AND (tp.last_received_at, tp.last_received_message_id) < (:createdAt, :id)"
+            + " ORDER BY tp.last_received_at DESC, tp.last_received_message_id DESC"
+            + " LIMIT :limit", nativeQuery = true)
+    List<Long> findLatestReceivedIdsPerThreadBefore(@Param("receiverId") Long receiverId,
+                                                    @Param("createdAt") Instant createdAt,
+                                                    @Param("id") Long id,
+                                                    @Param("limit") int limit);
+
+    // One id per send (batch_id), newest first (first page)
+    @Query(value = "SELECT m.id FROM {h-schema}internal_messages m WHERE m.id IN ("
+            + " SELECT DISTINCT ON (COALESCE(x.batch_id, x.id)) x.id FROM {h-schema}internal_messages x"
+            + " WHERE x.sender_id = :senderId"
+            + " ORDER BY COALESCE(x.batch_id, x.id), x.created_at DESC, x.id DESC)"
+            + " ORDER BY m.created_at DESC, m.id DESC"
+            + " LIMIT :limit", nativeQuery = true)
+    List<Long> findLatestSentIdsPerBatch(@Param("senderId") Long senderId,
+                                         @Param("limit") int limit);
+
+    // Same as findLatestSentIdsPerBatch, continuing after the (createdAt, id) keyset position
+    @Query(value = "SELECT m.id FROM {h-schema}internal_messages m WHERE m.id IN ("
+            + " SELECT DISTINCT ON (COALESCE(x.batch_id, x.id)) x.id FROM {h-schema}internal_messages x"
+            + " WHERE x.sender_id = :senderId"
+            + " ORDER BY COALESCE(x.batch_id, x.id), x.created_at DESC, x.id DESC)"
+            + " AND (m.created_at, m.id) < (:createdAt, :id)"
+            + " ORDER BY m.created_at DESC, m.id DESC"
+            + " LIMIT :limit", nativeQuery = true)
+    List<Long> findLatestSentIdsPerBatchBefore(@Param("senderId") Long senderId,
+                                               @Param("createdAt") Instant createdAt,
+                                               @Param("id") Long id,
+                                               @Param("limit") int limit);
+
+    interface UnreadCountRow {
+        Long getReceiverId();
+
+        long getUnread();
+    }
+
+    // Full-text search over threads the employee participates in, best match first. Copies of one send
+    // collapse to a single hit (the employee's own copy when there is one); ts_headline runs on the page rows only.
+    @Query(value = "SELECT h.id AS \"id\", h.rank AS \"rank\","
+            + " ts_headline('simple', m.subject, tsq, 'HighlightAll=true, StartSel=<mark>, StopSel=</mark>') AS \"subjectHighlight\","
+            + " ts_headline('simple', m.body, tsq, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MinWords=5, MaxWords=20') AS \"bodyHighlight\""
+            + " FROM (SELECT hit.id, hit.rank FROM ("
+            + "   SELECT DISTINCT ON (COALESCE(x.batch_id, x.id)) x.id, ts_rank_cd(x.search_vector, tsq) AS rank"
+            + "   FROM {h-schema}internal_messages x"
+            + "   JOIN {h-schema}thread_participants tp ON tp.thread_id = x.thread_id AND tp.employee_id = :employeeId,"
+            + "   websearch_to_tsquery('simple', :q) tsq"
+            + "   WHERE x.search_vector @@ tsq"
+            + "   ORDER BY COALESCE(x.batch_id, x.id), (x.receiver_id = :employeeId) DESC, x.id) hit"
+            + "  ORDER BY hit.rank DESC, hit.id DESC LIMIT :limit) h"
+            + " JOIN {h-schema}internal_messages m ON m.id = h.id,"
+            + " websearch_to_tsquery('simple', :q) tsq"
+            + " ORDER BY h.rank DESC, h.id DESC", nativeQuery = true)
+    List<SearchHitRow> search(@Param("employeeId") Long employeeId,
+                              @Param("q") String q,
+                              @Param("limit") int limit);
+
+    // Same as search, continuing after the (rank, id) keyset position
+    @Query(value = "SELECT h.id AS \"id\", h.rank AS \"rank\","
+            + " ts_headline('simple', m.subject, tsq, 'HighlightAll=true, StartSel=<mark>, StopSel=</mark>') AS \"subjectHighlight\","
+            + " ts_headline('simple', m.body, tsq, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MinWords=5, MaxWords=20') AS \"bodyHighlight\""
+            + " FROM (SELECT hit.id, hit.rank FROM ("
+            + "   SELECT DISTINCT ON (COALESCE(x.batch_id, x.id)) x.id, ts_rank_cd(x.search_vector, tsq) AS rank"
+            + "   FROM {h-schema}internal_messages x"
+            + "   JOIN {h-schema}thread_participants tp ON tp.thread_id = x.thread_id AND tp.employee_id = :employeeId,"
+            + "   websearch_to_tsquery('simple', :q) tsq"
+            + "   WHERE x.search_vector @@ tsq"
+            + "   ORDER BY COALESCE(x.batch_id, x.id), (x.receiver_id = :employeeId) DESC, x.id) hit"
+            + "  WHERE (hit.rank, hit.id) < (CAST(:rank AS real), :id)"
+            + "  ORDER BY hit.rank DESC, hit.id DESC LIMIT :limit) h"
+            + " JOIN {h-schema}internal_messages m ON m.id = h.id,"
+            + " websearch_to_tsquery('simple', :q) tsq"
+            + " ORDER BY h.rank DESC, h.id DESC", nativeQuery = true)
+    List<SearchHitRow> searchAfter(@Param("employeeId") Long employeeId,
+                                   @Param("q") String q,
+                                   @Param("rank") float rank,
+                                   @Param("id") Long id,
+                                   @Param("limit") int limit);
+
+    interface SearchHitRow {
+        Long getId();
+
+        Float getRank();
+
+        String getSubjectHighlight();
 
-    // Find the latest message in a thread for a given user (sender or receiver)
-    @Query("SELECT m FROM InternalMessage m WHERE m.threadId = :threadId AND (m.sender = :employee OR m.receiver = :employee) ORDER BY m.createdAt DESC")
-    List<InternalMessage> findMessagesInThreadForEmployee(@Param("threadId") Long threadId, @Param("employee") Employee employee);
+        String getBodyHighlight();
+    }
 }
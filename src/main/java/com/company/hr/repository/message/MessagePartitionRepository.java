@@ -0,0 +1,254 @@
+package com.company.hr.repository.message;
+
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC DDL and bulk statements for the monthly partitions of internal_messages.
+ *
+ * Partition names are always derived from a YearMonth (internal_messages_pYYYY_MM), never from
+ * request input, so they can be formatted into SQL directly. Summary maintenance works on a single
+ * partition as a whole and must run in the same transaction as the drop / attach it belongs to.
+ *
+ * Detaching uses DETACH ... CONCURRENTLY (PostgreSQL 14+), which cannot run inside a transaction
+ * block. A month is restored into a standalone table first and attached once loaded, so neither
+ * direction holds an ACCESS EXCLUSIVE lock on internal_messages while data is copied.
+ */
+@Repository
+public class MessagePartitionRepository {
+
+    public static final String PARENT = "internal_messages";
+    private static final String PREFIX = PARENT + "_p";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    // Archive layout; search_vector is generated and rebuilt on restore
+    private static final String COLUMNS = "id, sender_id, receiver_id, subject, body, reply_to_id, thread_id, batch_id,"
+            + " attachment_path, attachment_name, attachment_type, attachment_size, is_read, created_at";
+
+    public static final String RESTORED_COMMENT = "restored from archive";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schema;
+
+    public MessagePartitionRepository(JdbcTemplate jdbcTemplate,
+                                      @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema == null || schema.isBlank() ? null : schema;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PREFIX + month.format(NAME_FORMAT);
+    }
+
+    // Null for tables that do not follow the naming scheme
+    public static YearMonth monthOf(String partitionName) {
+        if (!partitionName.startsWith(PREFIX)) return null;
+        try {
+            return YearMonth.parse(partitionName.substring(PREFIX.length()), NAME_FORMAT);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // False when the schema was created by ddl-auto without ddl.sql
+    public boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt"
+                        + " JOIN pg_class c ON c.oid = pt.partrelid JOIN pg_namespace n ON n.oid = c.relnamespace"
+                        + " WHERE c.relname = ? AND n.nspname = COALESCE(?, current_schema()))",
+                Boolean.class, PARENT, schema);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    public List<PartitionRow> listPartitions() {
+        return jdbcTemplate.query(
+                "SELECT c.relname, obj_description(c.oid, 'pg_class'), i.inhdetachpending FROM pg_inherits i"
+                        + " JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " JOIN pg_class p ON p.oid = i.inhparent JOIN pg_namespace n ON n.oid = p.relnamespace"
+                        + " WHERE p.relname = ? AND n.nspname = COALESCE(?, current_schema()) ORDER BY c.relname",
+                (rs, rowNum) -> new PartitionRow(rs.getString(1), rs.getString(2), rs.getBoolean(3)), PARENT, schema);
+    }
+
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')".formatted(
+                qualify(partitionName(month)), qualify(PARENT), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    // Must run outside a transaction; FINALIZE completes a concurrent detach that was interrupted
+    public void detachPartitionConcurrently(YearMonth month, boolean pending) {
+        jdbcTemplate.execute("ALTER TABLE %s DETACH PARTITION %s %s".formatted(
+                qualify(PARENT), qualify(partitionName(month)), pending ? "FINALIZE" : "CONCURRENTLY"));
+    }
+
+    // Without the range check (or the one a concurrent detach leaves behind) this scans the table
+    public void attachPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')".formatted(
+                qualify(PARENT), qualify(partitionName(month)), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    // Standalone table with the partition's name and layout, loaded before it is attached
+    public void createStandalone(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING GENERATED)".formatted(
+                qualify(partitionName(month)), qualify(PARENT)));
+    }
+
+    public void addRangeCheck(YearMonth month) {
+        jdbcTemplate.execute(("ALTER TABLE %s ADD CONSTRAINT %s CHECK (created_at IS NOT NULL"
+                + " AND created_at >= '%s' AND created_at < '%s')").formatted(
+                qualify(partitionName(month)), rangeCheckName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    public void dropRangeCheck(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE %s DROP CONSTRAINT IF EXISTS %s".formatted(qualify(partitionName(month)), rangeCheckName(month)));
+    }
+
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS %s".formatted(qualify(partitionName(month))));
+    }
+
+    // Changes when a message of the month is deleted or read, to detect writes during an export
+    public String fingerprint(YearMonth month) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) || ':' || COALESCE(SUM(id), 0) || ':' || COUNT(*) FILTER (WHERE is_read) FROM %s"
+                        .formatted(qualify(partitionName(month))), String.class);
+    }
+
+    public void markRestored(YearMonth month) {
+        jdbcTemplate.execute("COMMENT ON TABLE %s IS '%s'".formatted(qualify(partitionName(month)), RESTORED_COMMENT));
+    }
+
+    public Map<Long, Long> unreadByReceiver(YearMonth month) {
+        Map<Long, Long> unread = new HashMap<>();
+        jdbcTemplate.query("SELECT receiver_id, COUNT(*) FROM %s WHERE is_read = false GROUP BY receiver_id"
+                        .formatted(qualify(partitionName(month))),
+                rs -> {
+                    unread.put(rs.getLong(1), rs.getLong(2));
+                });
+        return unread;
+    }
+
+    // Keeps the partition's attachment files referenced while the month is archived
+    public int rememberAttachments(YearMonth month) {
+        return jdbcTemplate.update(("INSERT INTO %s (path, archive_month, archived_at)"
+                        + " SELECT DISTINCT attachment_path, ?, now() FROM %s WHERE attachment_path IS NOT NULL"
+                        + " ON CONFLICT (path) DO NOTHING").formatted(qualify("archived_message_attachments"), qualify(partitionName(month))),
+                month.toString());
+    }
+
+    public int forgetAttachments(YearMonth month) {
+        return jdbcTemplate.update("DELETE FROM %s WHERE archive_month = ?".formatted(qualify("archived_message_attachments")),
+                month.toString());
+    }
+
+    // Removes the partition's messages from thread summaries and reply links; the partition must be detached.
+    // Summaries that pointed at an archived message fall back to the latest remaining one.
+    public void releaseSummaries(YearMonth month) {
+        String p = qualify(partitionName(month));
+        String m = qualify(PARENT);
+        String tp = qualify("thread_participants");
+        String mt = qualify("message_threads");
+        jdbcTemplate.update(("UPDATE %s tp SET unread_count = GREATEST(tp.unread_count - d.n, 0)"
+                + " FROM (SELECT thread_id, receiver_id, COUNT(*) AS n FROM %s"
+                + "   WHERE is_read = false AND thread_id IS NOT NULL GROUP BY thread_id, receiver_id) d"
+                + " WHERE tp.thread_id = d.thread_id AND tp.employee_id = d.receiver_id").formatted(tp, p));
+        jdbcTemplate.update(("UPDATE %s tp SET (last_received_message_id, last_received_at) ="
+                + " (SELECT m.id, m.created_at FROM %s m WHERE m.thread_id = tp.thread_id AND m.receiver_id = tp.employee_id"
+                + "   ORDER BY m.created_at DESC, m.id DESC LIMIT 1)"
+                + " FROM %s p WHERE tp.last_received_message_id = p.id").formatted(tp, m, p));
+        jdbcTemplate.update(("UPDATE %s tp SET (last_sent_message_id, last_sent_at) ="
+                + " (SELECT m.id, m.created_at FROM %s m WHERE m.thread_id = tp.thread_id AND m.sender_id = tp.employee_id"
+                + "   ORDER BY m.created_at DESC, m.id DESC LIMIT 1)"
+                + " FROM %s p WHERE tp.last_sent_message_id = p.id").formatted(tp, m, p));
+        jdbcTemplate.update(("DELETE FROM %s WHERE last_received_message_id IS NULL AND last_sent_message_id IS NULL"
+                + " AND thread_id IN (SELECT thread_id FROM %s)").formatted(tp, p));
+        jdbcTemplate.update(("UPDATE %s mt SET message_count = mt.message_count - d.n"
+                + " FROM (SELECT thread_id, COUNT(*) AS n FROM %s WHERE thread_id IS NOT NULL GROUP BY thread_id) d"
+                + " WHERE mt.id = d.thread_id").formatted(mt, p));
+        jdbcTemplate.update("DELETE FROM %s WHERE message_count <= 0 AND id IN (SELECT thread_id FROM %s)".formatted(mt, p));
+        jdbcTemplate.update(("UPDATE %s mt SET (last_message_id, last_activity_at) ="
+                + " (SELECT m.id, m.created_at FROM %s m WHERE m.thread_id = mt.id ORDER BY m.created_at DESC, m.id DESC LIMIT 1)"
+                + " FROM %s p WHERE mt.last_message_id = p.id").formatted(mt, m, p));
+        jdbcTemplate.update("UPDATE %s SET reply_to_id = NULL WHERE reply_to_id IN (SELECT id FROM %s)".formatted(m, p));
+    }
+
+    // Recomputes summaries of every thread touched by the partition; the partition must be attached
+    public void rebuildSummaries(YearMonth month) {
+        String p = qualify(partitionName(month));
+        String m = qualify(PARENT);
+        String tp = qualify("thread_participants");
+        String mt = qualify("message_threads");
+        String threads = "SELECT DISTINCT thread_id FROM %s WHERE thread_id IS NOT NULL".formatted(p);
+        jdbcTemplate.update("DELETE FROM %s WHERE thread_id IN (%s)".formatted(tp, threads));
+        jdbcTemplate.update("DELETE FROM %s WHERE id IN (%s)".formatted(mt, threads));
+        jdbcTemplate.update(("INSERT INTO %s (id, subject, last_message_id, last_activity_at, message_count, created_at)"
+                + " SELECT m.thread_id, (array_agg(m.subject ORDER BY m.created_at, m.id))[1],"
+                + " (array_agg(m.id ORDER BY m.created_at DESC, m.id DESC))[1], MAX(m.created_at), COUNT(*), MIN(m.created_at)"
+                + " FROM %s m WHERE m.thread_id IN (%s) GROUP BY m.thread_id").formatted(mt, m, threads));
+        jdbcTemplate.update(("INSERT INTO %s (thread_id, employee_id, unread_count,"
+                + " last_received_message_id, last_received_at, last_sent_message_id, last_sent_at)"
+                + " SELECT x.thread_id, x.employee_id,"
+                + " COUNT(*) FILTER (WHERE x.role = 'R' AND NOT x.is_read),"
+                + " (array_agg(x.id ORDER BY x.created_at DESC, x.id DESC) FILTER (WHERE x.role = 'R'))[1],"
+                + " MAX(x.created_at) FILTER (WHERE x.role = 'R'),"
+                + " (array_agg(x.id ORDER BY x.created_at DESC, x.id DESC) FILTER (WHERE x.role = 'S'))[1],"
+                + " MAX(x.created_at) FILTER (WHERE x.role = 'S')"
+                + " FROM (SELECT thread_id, receiver_id AS employee_id, 'R' AS role, id, created_at, is_read"
+                + "   FROM %2$s WHERE thread_id IN (%3$s)"
+                + "   UNION ALL SELECT thread_id, sender_id, 'S', id, created_at, TRUE"
+                + "   FROM %2$s WHERE thread_id IN (%3$s)) x"
+                + " GROUP BY x.thread_id, x.employee_id").formatted(tp, m, threads));
+    }
+
+    public long copyOut(YearMonth month, OutputStream out) {
+        String sql = "COPY %s (%s) TO STDOUT WITH (FORMAT csv, HEADER)".formatted(qualify(partitionName(month)), COLUMNS);
+        return copy(copyManager -> copyManager.copyOut(sql, out));
+    }
+
+    public long copyIn(YearMonth month, InputStream in) {
+        String sql = "COPY %s (%s) FROM STDIN WITH (FORMAT csv, HEADER)".formatted(qualify(partitionName(month)), COLUMNS);
+        return copy(copyManager -> copyManager.copyIn(sql, in));
+    }
+
+    // Runs on the transaction-bound connection, or as a statement of its own outside a transaction
+    private long copy(CopyOperation operation) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return operation.run(new CopyManager(con.unwrap(BaseConnection.class)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private String qualify(String table) {
+        return schema == null ? table : schema + "." + table;
+    }
+
+    @FunctionalInterface
+    private interface CopyOperation {
+        long run(CopyManager copyManager) throws SQLException, IOException;
+    }
+
+    private static String rangeCheckName(YearMonth month) {
+        return partitionName(month) + "_range";
+    }
+
+    public record PartitionRow(String name, String comment, boolean detachPending) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.hr.repository.message;
+
+import com.company.hr.entity.message.MessageThread;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface MessageThreadRepository extends JpaRepository<MessageThread, Long> {
+
+    // Creates the summary on the first send, otherwise advances last activity and message count
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}message_threads AS t"
+            + " (id, subject, last_message_id, last_activity_at, message_count, created_at)"
+            + " VALUES (:threadId, :subject, :lastMessageId, :lastActivityAt, :messageCount, :lastActivityAt)"
+            + " ON CONFLICT (id) DO UPDATE SET"
+            + " last_message_id = CASE WHEN t.last_activity_at IS NULL OR EXCLUDED.last_activity_at >= t.last_activity_at"
+            + "   THEN EXCLUDED.last_message_id ELSE t.last_message_id END,"
+            + " last_activity_at = GREATEST(t.last_activity_at, EXCLUDED.last_activity_at),"
+            + " message_count = t.message_count + EXCLUDED.message_count", nativeQuery = true)
+    int upsertOnSend(@Param("threadId") Long threadId,
+                     @Param("subject") String subject,
+                     @Param("lastMessageId") Long lastMessageId,
+                     @Param("lastActivityAt") Instant lastActivityAt,
+                     @Param("messageCount") long messageCount);
+
+    // Recomputes the summary from internal_messages after a message was removed
+    @Modifying
+    @Query(value = "UPDATE {h-schema}message_threads t SET"
+            + " last_message_id = (SELECT m.id FROM {h-schema}internal_messages m WHERE m.thread_id = t.id"
+            + "   ORDER BY m.created_at DESC, m.id DESC LIMIT 1),"
+            + " last_activity_at = (SELECT MAX(m.created_at) FROM {h-schema}internal_messages m WHERE m.thread_id = t.id),"
+            + " message_count = (SELECT COUNT(*) FROM {h-schema}internal_messages m WHERE m.thread_id = t.id)"
+            + " WHERE t.id = :threadId", nativeQuery = true)
+    int refresh(@Param("threadId") Long threadId);
+
+    @Modifying
+    @Query(value = "DELETE FROM {h-schema}message_threads WHERE id = :threadId AND message_count = 0", nativeQuery = true)
+    int deleteIfEmpty(@Param("threadId") Long threadId);
+}
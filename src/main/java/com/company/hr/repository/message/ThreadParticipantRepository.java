@@ -0,0 +1,67 @@
+package com.company.hr.repository.message;
+
+import com.company.hr.entity.message.ThreadParticipant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface ThreadParticipantRepository extends JpaRepository<ThreadParticipant, Long> {
+
+    boolean existsByThreadIdAndEmployeeId(Long threadId, Long employeeId);
+
+    // One row per receiver of the given (already flushed) messages
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}thread_participants AS tp"
+            + " (thread_id, employee_id, unread_count, last_received_message_id, last_received_at)"
+            + " SELECT m.thread_id, m.receiver_id, CASE WHEN m.is_read THEN 0 ELSE 1 END, m.id, m.created_at"
+            + " FROM {h-schema}internal_messages m WHERE m.id IN (:messageIds)"
+            + " ON CONFLICT (thread_id, employee_id) DO UPDATE SET"
+            + " unread_count = tp.unread_count + EXCLUDED.unread_count,"
+            + " last_received_message_id = CASE WHEN tp.last_received_at IS NULL OR EXCLUDED.last_received_at >= tp.last_received_at"
+            + "   THEN EXCLUDED.last_received_message_id ELSE tp.last_received_message_id END,"
+            + " last_received_at = GREATEST(tp.last_received_at, EXCLUDED.last_received_at)", nativeQuery = true)
+    int upsertReceivers(@Param("messageIds") Collection<Long> messageIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}thread_participants AS tp"
+            + " (thread_id, employee_id, unread_count, last_sent_message_id, last_sent_at)"
+            + " VALUES (:threadId, :employeeId, 0, :messageId, :sentAt)"
+            + " ON CONFLICT (thread_id, employee_id) DO UPDATE SET"
+            + " last_sent_message_id = CASE WHEN tp.last_sent_at IS NULL OR EXCLUDED.last_sent_at >= tp.last_sent_at"
+            + "   THEN EXCLUDED.last_sent_message_id ELSE tp.last_sent_message_id END,"
+            + " last_sent_at = GREATEST(tp.last_sent_at, EXCLUDED.last_sent_at)", nativeQuery = true)
+    int upsertSender(@Param("threadId") Long threadId,
+                     @Param("employeeId") Long employeeId,
+                     @Param("messageId") Long messageId,
+                     @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query(value = "UPDATE {h-schema}thread_participants SET unread_count = 0"
+            + " WHERE thread_id = :threadId AND employee_id = :employeeId", nativeQuery = true)
+    int resetUnread(@Param("threadId") Long threadId, @Param("employeeId") Long employeeId);
+
+    // Recomputes the given participants of a thread from internal_messages after a message was removed
+    @Modifying
+    @Query(value = "UPDATE {h-schema}thread_participants tp SET"
+            + " unread_count = (SELECT COUNT(*) FROM {h-schema}internal_messages m"
+            + "   WHERE m.thread_id = tp.thread_id AND m.receiver_id = tp.employee_id AND m.is_read = false),"
+            + " last_received_message_id = (SELECT m.id FROM {h-schema}internal_messages m"
+            + "   WHERE m.thread_id = tp.thread_id AND m.receiver_id = tp.employee_id ORDER BY m.created_at DESC, m.id DESC LIMIT 1),"
+            + " last_received_at = (SELECT MAX(m.created_at) FROM {h-schema}internal_messages m"
+            + "   WHERE m.thread_id = tp.thread_id AND m.receiver_id = tp.employee_id),"
+            + " last_sent_message_id = (SELECT m.id FROM {h-schema}internal_messages m"
+            + "   WHERE m.thread_id = tp.thread_id AND m.sender_id = tp.employee_id ORDER BY m.created_at DESC, m.id DESC LIMIT 1),"
+            + " last_sent_at = (SELECT MAX(m.created_at) FROM {h-schema}internal_messages m"
+            + "   WHERE m.thread_id = tp.thread_id AND m.sender_id = tp.employee_id)"
+            + " WHERE tp.thread_id = :threadId AND tp.employee_id IN (:employeeIds)", nativeQuery = true)
+    int refresh(@Param("threadId") Long threadId, @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM {h-schema}thread_participants"
+            + " WHERE thread_id = :threadId AND last_received_message_id IS NULL AND last_sent_message_id IS NULL", nativeQuery = true)
+    int deleteInactive(@Param("threadId") Long threadId);
+}
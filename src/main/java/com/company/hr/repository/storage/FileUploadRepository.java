@@ -0,0 +1,31 @@
+package com.company.hr.repository.storage;
+
+import com.company.hr.entity.storage.FileUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface FileUploadRepository extends JpaRepository<FileUpload, Long> {
+
+    Optional<FileUpload> findByIdAndEmployeeId(Long id, Long employeeId);
+
+    List<FileUpload> findTop500ByCreatedAtBeforeOrderByCreatedAt(Instant cutoff);
+
+    // Claim: 0 when the row is gone (claimed concurrently or cleaned up) or belongs to someone else
+    @Modifying
+    @Query(value = "DELETE FROM {h-schema}file_uploads WHERE id = :id AND employee_id = :employeeId AND kind = :kind",
+            nativeQuery = true)
+    int deleteClaimed(@Param("id") Long id, @Param("employeeId") Long employeeId, @Param("kind") String kind);
+
+    // Cleanup: a row claimed meanwhile is already gone and its file is in use
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM {h-schema}file_uploads WHERE id = :id", nativeQuery = true)
+    int deleteUnclaimed(@Param("id") Long id);
+}
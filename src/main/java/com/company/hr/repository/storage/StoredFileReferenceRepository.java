@@ -0,0 +1,64 @@
+package com.company.hr.repository.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Which stored paths are still referenced by a row, for the orphan file collector.
+ *
+ * One UNION query per batch of candidates, each branch an = ANY(array) lookup on a column that
+ * holds a stored path. A new column that stores uploads must be added to REFERENCES, or its
+ * files will be collected.
+ */
+@Repository
+public class StoredFileReferenceRepository {
+
+    // table, column
+    private static final List<String[]> REFERENCES = List.of(
+            new String[]{"employee_documents", "stored_path"},
+            new String[]{"leave_requests", "attachment_path"},
+            new String[]{"internal_messages", "attachment_path"},
+            new String[]{"archived_message_attachments", "path"},
+            new String[]{"employees", "profile_photo_path"},
+            new String[]{"app_settings", "logo_path"},
+            new String[]{"file_uploads", "stored_path"},
+            new String[]{"document_upload_sessions", "partial_path"}
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+
+    public StoredFileReferenceRepository(JdbcTemplate jdbcTemplate,
+                                         @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        this.sql = REFERENCES.stream()
+                .map(ref -> "SELECT %2$s FROM %1$s%3$s WHERE %2$s = ANY(?)".formatted(prefix, ref[1], ref[0]))
+                .collect(Collectors.joining(" UNION "));
+    }
+
+    public Set<String> findReferenced(Collection<String> paths) {
+        Set<String> referenced = new HashSet<>();
+        if (paths.isEmpty()) return referenced;
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            Array array = con.createArrayOf("text", paths.toArray());
+            for (int i = 1; i <= REFERENCES.size(); i++) {
+                ps.setArray(i, array);
+            }
+            return ps;
+        }, rs -> {
+            referenced.add(rs.getString(1));
+        });
+        return referenced;
+    }
+}
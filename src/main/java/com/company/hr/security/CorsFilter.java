@@ -27,6 +27,11 @@ public class CorsFilter implements Filter {
             "http://localhost:5173"
     );
 
+    // Response headers the frontend reads; also used by SecurityConfig
+    static final List<String> EXPOSED_HEADERS = List.of(
+            "Authorization", "X-Next-Cursor", "X-Unread-Count", "Upload-Offset", "Upload-Length", "Location");
+    private static final String EXPOSED_HEADERS_VALUE = String.join(", ", EXPOSED_HEADERS);
+
     @Override
     public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
             throws IOException, ServletException {
@@ -46,14 +51,14 @@ public class CorsFilter implements Filter {
             response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, PATCH");
             response.setHeader("Access-Control-Allow-Headers", "*");
             response.setHeader("Access-Control-Max-Age", "3600");
-            response.setHeader("Access-Control-Expose-Headers", "Authorization");
+            response.setHeader("Access-Control-Expose-Headers", EXPOSED_HEADERS_VALUE);
             response.setStatus(HttpServletResponse.SC_OK);
             return; // Don't continue the filter chain for OPTIONS
         }
 
         // Add CORS headers to all responses
         if (origin != null && isOriginAllowed(origin)) {
-            response.setHeader("Access-Control-Expose-Headers", "Authorization");
+            response.setHeader("Access-Control-Expose-Headers", EXPOSED_HEADERS_VALUE);
         }
 
         chain.doFilter(req, res);
@@ -0,0 +1,44 @@
+package com.company.hr.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-use tickets for the SSE event stream. EventSource cannot send headers, so the stream is
+ * opened with ?ticket= instead of the login token; a ticket is valid for a few seconds and only
+ * once. Used ticket ids are kept in memory until they expire, so single use holds per node and the
+ * short lifetime bounds what a leaked URL is worth elsewhere.
+ */
+@Service
+public class EventStreamTicketService {
+
+    private final JwtService jwtService;
+    private final Duration ttl;
+    private final Map<String, Instant> redeemed = new ConcurrentHashMap<>();
+
+    public EventStreamTicketService(JwtService jwtService,
+                                    @Value("${app.jwt.stream-ticket-seconds:30}") long ttlSeconds) {
+        this.jwtService = jwtService;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    public String issue(String subjectEmail) {
+        return jwtService.generateStreamTicket(subjectEmail, ttl);
+    }
+
+    // Subject on first use; null when the ticket is invalid, expired or already used
+    public String redeem(String ticket) {
+        Claims claims = jwtService.parseStreamTicket(ticket);
+        if (claims == null || claims.getId() == null) return null;
+        Instant now = Instant.now();
+        redeemed.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        if (redeemed.putIfAbsent(claims.getId(), claims.getExpiration().toInstant()) != null) return null;
+        return claims.getSubject();
+    }
+}
@@ -17,14 +17,26 @@ import java.io.IOException;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final String EVENT_STREAM_PATH = "/api/employee/events";
+    // Public, authorized by signed URL parameters instead of the token
+    private static final String FILES_PATH = "/files/";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final EventStreamTicketService streamTicketService;
 
-    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService, TokenBlacklistService tokenBlacklistService) {
+    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService, TokenBlacklistService tokenBlacklistService,
+                         EventStreamTicketService streamTicketService) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.streamTicketService = streamTicketService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(FILES_PATH);
     }
 
     @Override
@@ -37,25 +49,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
-        String token = authHeader.substring("Bearer ".length()).trim();
-        if (!jwtService.isValid(token)) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
-        // Check if token is blacklisted (logged out)
-        if (tokenBlacklistService.isBlacklisted(token)) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
-        String subject = jwtService.extractSubject(token);
+        String subject = resolveSubject(request);
         if (subject != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
             UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
@@ -69,5 +63,22 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
 
+    private String resolveSubject(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring("Bearer ".length()).trim();
+            // Blacklisted tokens were logged out
+            if (!jwtService.isValid(token) || tokenBlacklistService.isBlacklisted(token)) {
+                return null;
+            }
+            return jwtService.extractSubject(token);
+        }
+        // EventSource cannot send headers: the event stream takes a single-use ticket, never the login token
+        if (EVENT_STREAM_PATH.equals(request.getRequestURI()) && "GET".equals(request.getMethod())) {
+            String ticket = request.getParameter("ticket");
+            return ticket == null || ticket.isBlank() ? null : streamTicketService.redeem(ticket.trim());
+        }
+        return null;
+    }
+}
@@ -8,13 +8,19 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
+    // Set only on stream tickets, which are never accepted as bearer tokens
+    private static final String PURPOSE_CLAIM = "purpose";
+    private static final String EVENT_STREAM_PURPOSE = "event-stream";
+
     private final SecretKey secretKey;
     private final long expirationMinutes;
 
@@ -37,14 +43,37 @@ public class JwtService {
                 .compact();
     }
 
+    // Short-lived ticket for the event stream URL, so the login token never appears in a query string
+    public String generateStreamTicket(String subjectEmail, Duration ttl) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .subject(subjectEmail)
+                .id(UUID.randomUUID().toString())
+                .claim(PURPOSE_CLAIM, EVENT_STREAM_PURPOSE)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(ttl)))
+                .signWith(secretKey)
+                .compact();
+    }
+
+    // Claims of a valid, unexpired stream ticket; null for anything else, including login tokens
+    public Claims parseStreamTicket(String token) {
+        try {
+            Claims claims = parseAllClaims(token);
+            return EVENT_STREAM_PURPOSE.equals(claims.get(PURPOSE_CLAIM, String.class)) ? claims : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     public String extractSubject(String token) {
         return parseAllClaims(token).getSubject();
     }
 
+    // Login tokens only; stream tickets are rejected
     public boolean isValid(String token) {
         try {
-            parseAllClaims(token);
-            return true;
+            return parseAllClaims(token).get(PURPOSE_CLAIM) == null;
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,44 @@
+package com.company.hr.service.dashboard;
+
+import com.company.hr.dto.dashboard.AdminDashboardResponse;
+import com.company.hr.dto.document.ComplianceSummaryResponse;
+import com.company.hr.repository.dashboard.DashboardQueryRepository;
+import com.company.hr.repository.dashboard.DashboardQueryRepository.Totals;
+import com.company.hr.service.document.DocumentComplianceService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read model of the admin dashboard: two aggregate queries plus the in-memory compliance matrix,
+ * whatever the headcount.
+ */
+@Service
+public class AdminDashboardService {
+
+    private final DashboardQueryRepository queryRepository;
+    private final DocumentComplianceService complianceService;
+
+    public AdminDashboardService(DashboardQueryRepository queryRepository,
+                                 DocumentComplianceService complianceService) {
+        this.queryRepository = queryRepository;
+        this.complianceService = complianceService;
+    }
+
+    @Transactional(readOnly = true)
+    public AdminDashboardResponse summary() {
+        Totals totals = queryRepository.totals();
+        ComplianceSummaryResponse compliance = complianceService.summary();
+        return new AdminDashboardResponse(
+                totals.employees(),
+                totals.documentTypes(),
+                totals.documents(),
+                totals.pendingLeaves(),
+                totals.approvedLeaves(),
+                totals.rejectedLeaves(),
+                compliance.completeEmployees(),
+                compliance.incompleteEmployees(),
+                queryRepository.positionDistribution(),
+                totals.documentsPendingReview()
+        );
+    }
+}
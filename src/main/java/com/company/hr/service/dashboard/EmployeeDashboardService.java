@@ -0,0 +1,60 @@
+package com.company.hr.service.dashboard;
+
+import com.company.hr.dto.dashboard.EmployeeDashboardResponse;
+import com.company.hr.dto.leave.LeaveRequestResponse;
+import com.company.hr.entity.auth.UserAccount;
+import com.company.hr.repository.dashboard.DashboardQueryRepository;
+import com.company.hr.repository.dashboard.DashboardQueryRepository.EmployeeTotals;
+import com.company.hr.service.employee.EmployeeService;
+import com.company.hr.service.settings.UrlBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read model of the employee dashboard, shown on every login: one query keyed by the account.
+ *
+ * Only an account without an employee profile takes the EmployeeService path, which creates the
+ * profile for admins, and then runs the query again.
+ */
+@Service
+public class EmployeeDashboardService {
+
+    private final DashboardQueryRepository queryRepository;
+    private final EmployeeService employeeService;
+    private final UrlBuilder urlBuilder;
+
+    public EmployeeDashboardService(DashboardQueryRepository queryRepository,
+                                    EmployeeService employeeService,
+                                    UrlBuilder urlBuilder) {
+        this.queryRepository = queryRepository;
+        this.employeeService = employeeService;
+        this.urlBuilder = urlBuilder;
+    }
+
+    @Transactional
+    public EmployeeDashboardResponse summary(UserAccount user) {
+        EmployeeTotals totals = queryRepository.employeeTotals(user.getId()).orElse(null);
+        if (totals == null) {
+            employeeService.findByUser(user);
+            totals = queryRepository.employeeTotals(user.getId()).orElseThrow();
+        }
+        long missing = Math.max(0, totals.mandatoryTypes() - totals.mandatoryUploaded());
+        return new EmployeeDashboardResponse(
+                totals.employeeId(),
+                totals.documentTypes(),
+                totals.documents(),
+                totals.mandatoryUploaded(),
+                missing,
+                totals.pendingLeaves(),
+                totals.approvedLeaves(),
+                withAttachmentUrl(totals.latestLeave())
+        );
+    }
+
+    private LeaveRequestResponse withAttachmentUrl(LeaveRequestResponse lr) {
+        if (lr == null) return null;
+        return new LeaveRequestResponse(lr.id(), lr.employeeId(), lr.employeeName(), lr.startDate(), lr.endDate(),
+                lr.reason(), lr.status(), lr.attachmentPath(), urlBuilder.fileUrl(lr.attachmentPath()),
+                lr.createdAt(), lr.updatedAt());
+    }
+}
@@ -0,0 +1,8 @@
+package com.company.hr.service.document;
+
+import com.company.hr.dto.document.ComplianceEntryResponse;
+
+import java.util.List;
+
+public record CompliancePage(List<ComplianceEntryResponse> entries, String nextCursor) {
+}
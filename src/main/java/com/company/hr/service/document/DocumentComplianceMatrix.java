@@ -0,0 +1,191 @@
+package com.company.hr.service.document;
+
+import com.company.hr.dto.document.DocumentTypeResponse;
+import com.company.hr.repository.document.DocumentComplianceRepository;
+import com.company.hr.service.event.AfterCommit;
+import com.company.hr.service.event.ClusterEvent;
+import com.company.hr.service.event.ClusterEventBus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory employee x document type matrix of uploaded documents.
+ *
+ * Each employee row is a BitSet over the document types (one column per type, ordered by id), so
+ * the missing mandatory types of an employee are mandatory AND NOT uploaded. The matrix is loaded
+ * on first use and then kept current one row at a time: a document upload, replace or delete and
+ * an employee create or delete re-read that employee's row after commit. Any document type change
+ * drops the matrix, which is loaded again on the next read.
+ *
+ * Other nodes apply the same changes through the cluster event bus. A load that raced with a
+ * change (detected through a generation counter) is returned but not kept.
+ */
+@Component
+public class DocumentComplianceMatrix {
+
+    public static final String TOPIC = "document-compliance";
+
+    private final AtomicReference<Matrix> matrix = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Object loadLock = new Object();
+
+    private final DocumentComplianceRepository repository;
+    private final ClusterEventBus eventBus;
+
+    public DocumentComplianceMatrix(DocumentComplianceRepository repository, ClusterEventBus eventBus) {
+        this.repository = repository;
+        this.eventBus = eventBus;
+        eventBus.subscribe(TOPIC, this::onEvent);
+        eventBus.subscribe(ClusterEventBus.RESYNC_TOPIC, event -> drop());
+    }
+
+    // Joins the caller's transaction: the row is re-read once it commits
+    public void employeeChanged(Long employeeId) {
+        eventBus.publish(TOPIC, Map.of("employeeId", employeeId));
+        AfterCommit.run(() -> refresh(employeeId));
+    }
+
+    public void documentTypesChanged() {
+        eventBus.publish(TOPIC, Map.of());
+        AfterCommit.run(this::drop);
+    }
+
+    public Matrix current() {
+        Matrix m = matrix.get();
+        if (m != null) return m;
+        synchronized (loadLock) {
+            m = matrix.get();
+            if (m != null) return m;
+            long gen = generation.get();
+            Matrix built = load();
+            if (generation.get() == gen) {
+                matrix.set(built);
+            }
+            return built;
+        }
+    }
+
+    public List<DocumentTypeResponse> missingMandatory(Long employeeId) {
+        Matrix m = current();
+        BitSet uploaded = m.row(employeeId);
+        if (uploaded == null) {
+            // Created on another node and not announced yet
+            refresh(employeeId);
+            uploaded = m.row(employeeId);
+        }
+        return m.types(m.missing(uploaded == null ? new BitSet() : uploaded));
+    }
+
+    private void onEvent(ClusterEvent event) {
+        if (event.local()) return;
+        if (event.data().hasNonNull("employeeId")) {
+            refresh(event.data().get("employeeId").asLong());
+        } else {
+            drop();
+        }
+    }
+
+    // Serialized, so a slower re-read never overwrites a newer one
+    private synchronized void refresh(Long employeeId) {
+        generation.incrementAndGet();
+        Matrix m = matrix.get();
+        if (m == null) return;
+        List<Long> typeIds = repository.findUploadedTypeIds(employeeId);
+        if (typeIds == null) {
+            m.rows.remove(employeeId);
+        } else {
+            m.rows.put(employeeId, m.bits(typeIds));
+        }
+    }
+
+    private void drop() {
+        generation.incrementAndGet();
+        matrix.set(null);
+    }
+
+    private Matrix load() {
+        List<DocumentTypeResponse> types = repository.findTypes();
+        Matrix m = new Matrix(types);
+        repository.findUploadedTypeIds().forEach((employeeId, typeIds) -> m.rows.put(employeeId, m.bits(typeIds)));
+        return m;
+    }
+
+    /**
+     * One loaded matrix. Rows are replaced, never modified, so a row read from it stays consistent.
+     */
+    public static final class Matrix {
+
+        private final List<DocumentTypeResponse> columns;
+        private final Map<Long, Integer> columnOf = new HashMap<>();
+        private final BitSet mandatory = new BitSet();
+        private final NavigableMap<Long, BitSet> rows = new ConcurrentSkipListMap<>();
+
+        private Matrix(List<DocumentTypeResponse> columns) {
+            this.columns = List.copyOf(columns);
+            for (int i = 0; i < columns.size(); i++) {
+                columnOf.put(columns.get(i).id(), i);
+                if (columns.get(i).mandatory()) {
+                    mandatory.set(i);
+                }
+            }
+        }
+
+        public List<DocumentTypeResponse> columns() {
+            return columns;
+        }
+
+        public int mandatoryCount() {
+            return mandatory.cardinality();
+        }
+
+        // Column of a document type, or -1 if it is not part of this matrix
+        public int column(Long documentTypeId) {
+            return columnOf.getOrDefault(documentTypeId, -1);
+        }
+
+        // Employee id -> uploaded columns, ordered by employee id
+        public NavigableMap<Long, BitSet> rows() {
+            return rows;
+        }
+
+        public BitSet row(Long employeeId) {
+            return rows.get(employeeId);
+        }
+
+        public BitSet missing(BitSet uploaded) {
+            BitSet missing = (BitSet) mandatory.clone();
+            missing.andNot(uploaded);
+            return missing;
+        }
+
+        public boolean isComplete(BitSet uploaded) {
+            return missing(uploaded).isEmpty();
+        }
+
+        public List<DocumentTypeResponse> types(BitSet columnSet) {
+            List<DocumentTypeResponse> result = new ArrayList<>(columnSet.cardinality());
+            columnSet.stream().forEach(i -> result.add(columns.get(i)));
+            return result;
+        }
+
+        private BitSet bits(List<Long> typeIds) {
+            BitSet bits = new BitSet(columns.size());
+            for (Long typeId : typeIds) {
+                Integer column = columnOf.get(typeId);
+                if (column != null) {
+                    bits.set(column);
+                }
+            }
+            return bits;
+        }
+    }
+}
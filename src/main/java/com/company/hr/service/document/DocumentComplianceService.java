@@ -0,0 +1,118 @@
+package com.company.hr.service.document;
+
+import com.company.hr.dto.document.ComplianceEntryResponse;
+import com.company.hr.dto.document.ComplianceSummaryResponse;
+import com.company.hr.dto.document.ComplianceTypeResponse;
+import com.company.hr.dto.document.DocumentTypeResponse;
+import com.company.hr.entity.employee.Employee;
+import com.company.hr.repository.employee.EmployeeRepository;
+import com.company.hr.service.document.DocumentComplianceMatrix.Matrix;
+import com.company.hr.web.exception.BadRequestException;
+import com.company.hr.web.exception.ResourceNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admin review of mandatory documents, answered from {@link DocumentComplianceMatrix}.
+ *
+ * Filtering and paging run over the in-memory rows in employee id order; only the employees on
+ * the returned page are read from the database, in one query.
+ */
+@Service
+public class DocumentComplianceService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final DocumentComplianceMatrix complianceMatrix;
+    private final EmployeeRepository employeeRepository;
+
+    public DocumentComplianceService(DocumentComplianceMatrix complianceMatrix, EmployeeRepository employeeRepository) {
+        this.complianceMatrix = complianceMatrix;
+        this.employeeRepository = employeeRepository;
+    }
+
+    // status: all, complete or incomplete; missingDocumentTypeId: only employees without that type
+    public CompliancePage page(String status, Long missingDocumentTypeId, String cursor, int limit) {
+        Boolean complete = parseStatus(status);
+        Matrix m = complianceMatrix.current();
+        int column = -1;
+        if (missingDocumentTypeId != null) {
+            column = m.column(missingDocumentTypeId);
+            if (column < 0) {
+                throw new ResourceNotFoundException("Document type", missingDocumentTypeId);
+            }
+        }
+        int size = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        List<Map.Entry<Long, BitSet>> rows = new ArrayList<>(size + 1);
+        var candidates = cursor == null ? m.rows() : m.rows().tailMap(parseCursor(cursor), false);
+        for (Map.Entry<Long, BitSet> row : candidates.entrySet()) {
+            BitSet uploaded = row.getValue();
+            if (column >= 0 && uploaded.get(column)) continue;
+            if (complete != null && m.isComplete(uploaded) != complete) continue;
+            rows.add(row);
+            if (rows.size() > size) break;
+        }
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = String.valueOf(rows.get(size - 1).getKey());
+        }
+
+        Map<Long, Employee> employees = employeeRepository.findAllById(rows.stream().map(Map.Entry::getKey).toList())
+                .stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        List<ComplianceEntryResponse> entries = new ArrayList<>(rows.size());
+        for (Map.Entry<Long, BitSet> row : rows) {
+            Employee emp = employees.get(row.getKey());
+            if (emp == null) continue;
+            BitSet missing = m.missing(row.getValue());
+            entries.add(new ComplianceEntryResponse(emp.getId(), emp.getFullName(), emp.getPosition(), emp.getDepartment(),
+                    m.mandatoryCount() - missing.cardinality(), missing.cardinality(),
+                    m.types(missing).stream().map(DocumentTypeResponse::id).toList()));
+        }
+        return new CompliancePage(entries, nextCursor);
+    }
+
+    public ComplianceSummaryResponse summary() {
+        Matrix m = complianceMatrix.current();
+        List<DocumentTypeResponse> columns = m.columns();
+        long[] uploadedPerColumn = new long[columns.size()];
+        long total = 0;
+        long complete = 0;
+        for (BitSet uploaded : m.rows().values()) {
+            total++;
+            if (m.isComplete(uploaded)) complete++;
+            uploaded.stream().forEach(i -> uploadedPerColumn[i]++);
+        }
+        List<ComplianceTypeResponse> types = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            DocumentTypeResponse type = columns.get(i);
+            types.add(new ComplianceTypeResponse(type.id(), type.name(), type.mandatory(),
+                    uploadedPerColumn[i], total - uploadedPerColumn[i]));
+        }
+        return new ComplianceSummaryResponse(total, complete, total - complete, types);
+    }
+
+    private static Boolean parseStatus(String status) {
+        if (status == null || status.isBlank() || status.equalsIgnoreCase("all")) return null;
+        if (status.equalsIgnoreCase("complete")) return true;
+        if (status.equalsIgnoreCase("incomplete")) return false;
+        throw new BadRequestException("status must be all, complete or incomplete");
+    }
+
+    private static Long parseCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
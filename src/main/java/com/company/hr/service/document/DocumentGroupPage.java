@@ -0,0 +1,9 @@
+package com.company.hr.service.document;
+
+import com.company.hr.entity.document.EmployeeDocument;
+
+import java.util.List;
+
+// Documents of one page of employees, ordered by employee id
+public record DocumentGroupPage(List<EmployeeDocument> documents, String nextCursor) {
+}
@@ -0,0 +1,96 @@
+package com.company.hr.service.document;
+
+import com.company.hr.entity.document.DocumentReviewStatus;
+import com.company.hr.entity.document.EmployeeDocument;
+import com.company.hr.entity.employee.Employee;
+import com.company.hr.repository.document.DocumentReviewRepository;
+import com.company.hr.repository.document.EmployeeDocumentRepository;
+import com.company.hr.web.exception.BadRequestException;
+import com.company.hr.web.exception.ConflictException;
+import com.company.hr.web.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Review queue for uploaded documents.
+ *
+ * Reviewers claim the next pending documents in batches; a claim is a lease of
+ * app.documents.review.lease-minutes, after which undecided documents return to the queue.
+ * Verifying or rejecting needs a live claim, so two reviewers never decide the same document.
+ * A replaced document is a new row and enters the queue as pending again.
+ */
+@Service
+public class DocumentReviewService {
+
+    public static final int DEFAULT_CLAIM_COUNT = 5;
+
+    private final DocumentReviewRepository reviewRepository;
+    private final EmployeeDocumentRepository documentRepository;
+    private final Duration lease;
+    private final int maxClaims;
+
+    public DocumentReviewService(DocumentReviewRepository reviewRepository,
+                                 EmployeeDocumentRepository documentRepository,
+                                 @Value("${app.documents.review.lease-minutes:15}") long leaseMinutes,
+                                 @Value("${app.documents.review.max-claims:20}") int maxClaims) {
+        this.reviewRepository = reviewRepository;
+        this.documentRepository = documentRepository;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+        this.maxClaims = maxClaims;
+    }
+
+    // Claims up to count more documents; the reviewer's open claims count towards max-claims
+    @Transactional
+    public List<EmployeeDocument> claim(Employee reviewer, int count) {
+        if (count <= 0) {
+            throw new BadRequestException("count must be positive");
+        }
+        reviewRepository.lockReviewer(reviewer.getId());
+        Instant now = Instant.now();
+        long open = reviewRepository.countActiveClaims(reviewer.getId(), now);
+        int allowed = (int) Math.min(count, maxClaims - open);
+        if (allowed <= 0) {
+            throw new ConflictException("You already hold " + open + " claimed documents; decide or release them first");
+        }
+        List<Long> ids = reviewRepository.claim(reviewer.getId(), allowed, now, now.plus(lease));
+        if (ids.isEmpty()) return List.of();
+        return documentRepository.findForReview(ids);
+    }
+
+    @Transactional(readOnly = true)
+    public List<EmployeeDocument> claimedBy(Employee reviewer) {
+        return documentRepository.findClaimedBy(reviewer.getId(), DocumentReviewStatus.PENDING, Instant.now());
+    }
+
+    @Transactional
+    public void verify(Long documentId, Employee reviewer) {
+        decide(documentId, reviewer, DocumentReviewStatus.VERIFIED, null);
+    }
+
+    @Transactional
+    public void reject(Long documentId, Employee reviewer, String note) {
+        if (note == null || note.isBlank()) {
+            throw new BadRequestException("A note is required to reject a document");
+        }
+        decide(documentId, reviewer, DocumentReviewStatus.REJECTED, note.trim());
+    }
+
+    // Gives the document back to the queue before the lease runs out
+    @Transactional
+    public void release(Long documentId, Employee reviewer) {
+        reviewRepository.release(documentId, reviewer.getId());
+    }
+
+    private void decide(Long documentId, Employee reviewer, DocumentReviewStatus status, String note) {
+        if (reviewRepository.decide(documentId, reviewer.getId(), status, note, Instant.now()) == 1) return;
+        if (!documentRepository.existsById(documentId)) {
+            throw new ResourceNotFoundException("Document", documentId);
+        }
+        throw new ConflictException("Document " + documentId + " is not claimed by you, was already reviewed, or the claim has expired");
+    }
+}
@@ -14,9 +14,11 @@ import java.util.List;
 public class DocumentTypeService {
 
     private final DocumentTypeRepository repository;
+    private final DocumentComplianceMatrix complianceMatrix;
 
-    public DocumentTypeService(DocumentTypeRepository repository) {
+    public DocumentTypeService(DocumentTypeRepository repository, DocumentComplianceMatrix complianceMatrix) {
         this.repository = repository;
+        this.complianceMatrix = complianceMatrix;
     }
 
     public List<DocumentType> findAll() {
@@ -33,7 +35,9 @@ public class DocumentTypeService {
             throw new ConflictException("Document type name already exists");
         }
         DocumentType d = new DocumentType(req.name(), req.description(), req.mandatory());
-        return repository.save(d);
+        DocumentType saved = repository.save(d);
+        complianceMatrix.documentTypesChanged();
+        return saved;
     }
 
     @Transactional
@@ -42,12 +46,15 @@ public class DocumentTypeService {
         d.setName(req.name());
         d.setDescription(req.description());
         d.setMandatory(req.mandatory());
-        return repository.save(d);
+        DocumentType saved = repository.save(d);
+        complianceMatrix.documentTypesChanged();
+        return saved;
     }
 
     @Transactional
     public void delete(Long id) {
         repository.delete(get(id));
+        complianceMatrix.documentTypesChanged();
     }
 }
 
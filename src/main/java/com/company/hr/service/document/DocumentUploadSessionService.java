@@ -0,0 +1,131 @@
+package com.company.hr.service.document;
+
+import com.company.hr.dto.document.DocumentUploadSessionRequest;
+import com.company.hr.entity.document.DocumentType;
+import com.company.hr.entity.document.DocumentUploadSession;
+import com.company.hr.entity.document.EmployeeDocument;
+import com.company.hr.entity.employee.Employee;
+import com.company.hr.repository.document.DocumentTypeRepository;
+import com.company.hr.repository.document.DocumentUploadSessionRepository;
+import com.company.hr.service.event.AfterCommit;
+import com.company.hr.service.storage.StorageService;
+import com.company.hr.service.storage.StoredUpload;
+import com.company.hr.web.exception.BadRequestException;
+import com.company.hr.web.exception.ConflictException;
+import com.company.hr.web.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Resumable document uploads in the style of tus.
+ *
+ * A session reserves a local .part file in the employee's document area. Chunks are appended at the
+ * offset the server last acknowledged, outside any transaction, so an interrupted chunk only costs
+ * the bytes that did not arrive. Completing the session renames the file into place and replaces
+ * the employee's document the same way a single upload does. Sessions that receive no chunk for
+ * app.storage.resumable.expire-hours are removed together with their file.
+ */
+@Service
+public class DocumentUploadSessionService {
+
+    private static final int MAX_OPEN_SESSIONS = 5;
+
+    private final DocumentUploadSessionRepository repository;
+    private final DocumentTypeRepository documentTypeRepository;
+    private final EmployeeDocumentService documentService;
+    private final StorageService storageService;
+    private final Duration expiry;
+
+    public DocumentUploadSessionService(DocumentUploadSessionRepository repository,
+                                        DocumentTypeRepository documentTypeRepository,
+                                        EmployeeDocumentService documentService,
+                                        StorageService storageService,
+                                        @Value("${app.storage.resumable.expire-hours:24}") long expireHours) {
+        this.repository = repository;
+        this.documentTypeRepository = documentTypeRepository;
+        this.documentService = documentService;
+        this.storageService = storageService;
+        this.expiry = Duration.ofHours(expireHours);
+    }
+
+    @Transactional
+    public DocumentUploadSession create(Employee employee, DocumentUploadSessionRequest request) {
+        DocumentType type = documentTypeRepository.findById(request.documentTypeId())
+                .orElseThrow(() -> new ResourceNotFoundException("Document type", request.documentTypeId()));
+        documentService.validateFileName(request.filename());
+        storageService.checkDeclaredSize(request.length());
+        if (repository.countByEmployeeId(employee.getId()) >= MAX_OPEN_SESSIONS) {
+            throw new ConflictException("Too many uploads in progress; complete or cancel one first");
+        }
+        String partialPath = storageService.createEmployeeDocumentPartial(employee.getId(), request.filename());
+        AfterCommit.onRollback(() -> storageService.discardPartial(partialPath));
+        return repository.save(new DocumentUploadSession(employee, type, request.filename(),
+                request.contentType(), partialPath, request.length()));
+    }
+
+    public DocumentUploadSession get(Employee employee, Long id) {
+        return repository.findByIdAndEmployeeId(id, employee.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Upload", id));
+    }
+
+    public Instant expiresAt(DocumentUploadSession session) {
+        return session.getUpdatedAt().plus(expiry);
+    }
+
+    // No surrounding transaction: nothing is held while the chunk streams in
+    public long appendChunk(Employee employee, Long id, long offset, InputStream body) {
+        DocumentUploadSession session = get(employee, id);
+        if (offset != session.getUploadOffset()) {
+            throw new ConflictException("Upload offset is " + session.getUploadOffset());
+        }
+        long newOffset = storageService.append(session.getPartialPath(), offset, session.getUploadLength(), body);
+        if (newOffset != offset && repository.advanceOffset(id, offset, newOffset, Instant.now()) == 0) {
+            throw new ConflictException("Upload was modified concurrently");
+        }
+        return newOffset;
+    }
+
+    // A rejected file content ends the session; the document is left as it was
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public EmployeeDocument complete(Employee employee, Long id) {
+        DocumentUploadSession session = repository.findForUpdate(id, employee.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Upload", id));
+        if (session.getUploadOffset() != session.getUploadLength()) {
+            throw new ConflictException("Upload is incomplete: " + session.getUploadOffset()
+                    + " of " + session.getUploadLength() + " bytes received");
+        }
+        StoredUpload upload = storageService.promote(session.getPartialPath(), session.getOriginalFilename(), session.getContentType());
+        AfterCommit.onRollback(() -> storageService.demote(upload.storedPath()));
+        AfterCommit.run(() -> storageService.discardPartial(session.getPartialPath()));
+        repository.delete(session);
+        return documentService.replace(employee, session.getDocumentType(), upload);
+    }
+
+    @Transactional
+    public void cancel(Employee employee, Long id) {
+        DocumentUploadSession session = repository.findForUpdate(id, employee.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Upload", id));
+        repository.delete(session);
+        AfterCommit.run(() -> storageService.discardPartial(session.getPartialPath()));
+    }
+
+    @Scheduled(cron = "${app.storage.resumable.cleanup-cron:0 20 * * * *}")
+    public void removeExpired() {
+        Instant cutoff = Instant.now().minus(expiry);
+        try {
+            for (DocumentUploadSession session : repository.findTop500ByUpdatedAtBeforeOrderByUpdatedAt(cutoff)) {
+                if (repository.deleteIfIdle(session.getId(), cutoff) == 1) {
+                    storageService.discardPartial(session.getPartialPath());
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Document upload cleanup failed: " + e.getMessage());
+        }
+    }
+}
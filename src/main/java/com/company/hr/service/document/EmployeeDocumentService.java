@@ -5,51 +5,83 @@ import com.company.hr.entity.document.EmployeeDocument;
 import com.company.hr.entity.employee.Employee;
 import com.company.hr.repository.document.DocumentTypeRepository;
 import com.company.hr.repository.document.EmployeeDocumentRepository;
+import com.company.hr.service.event.AfterCommit;
 import com.company.hr.service.storage.StorageService;
+import com.company.hr.service.storage.StoredUpload;
 import com.company.hr.web.exception.BadRequestException;
 import com.company.hr.web.exception.ResourceNotFoundException;
 import com.company.hr.web.exception.UnauthorizedException;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class EmployeeDocumentService {
 
+    private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
+            MediaType.APPLICATION_PDF_VALUE, MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final Instant UPLOADED_MAX = Instant.parse("9999-12-31T00:00:00Z");
+
     private final EmployeeDocumentRepository repository;
     private final DocumentTypeRepository documentTypeRepository;
     private final StorageService storageService;
-    private final Path baseDir;
+    private final DocumentComplianceMatrix complianceMatrix;
+    private final TransactionTemplate transactionTemplate;
 
     public EmployeeDocumentService(EmployeeDocumentRepository repository,
                                    DocumentTypeRepository documentTypeRepository,
                                    StorageService storageService,
-                                   @Value("${app.storage.upload-dir:uploads}") String baseDir) {
+                                   DocumentComplianceMatrix complianceMatrix,
+                                   PlatformTransactionManager transactionManager) {
         this.repository = repository;
         this.documentTypeRepository = documentTypeRepository;
         this.storageService = storageService;
-        this.baseDir = Path.of(baseDir);
+        this.complianceMatrix = complianceMatrix;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public List<EmployeeDocument> listForEmployee(Employee employee) {
         return repository.findByEmployee(employee);
     }
 
-    public List<EmployeeDocument> listByDocumentType(Long documentTypeId) {
-        DocumentType type = documentTypeRepository.findById(documentTypeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Document type", documentTypeId));
-        return repository.findByDocumentType(type);
-    }
+    // Admin list: employees with a matching document, keyset paginated by employee id; dates are inclusive UTC days
+    @Transactional(readOnly = true)
+    public DocumentGroupPage listUploadGroups(String department, Long documentTypeId, LocalDate uploadedFrom,
+                                              LocalDate uploadedTo, String cursor, int limit) {
+        if (uploadedFrom != null && uploadedTo != null && uploadedTo.isBefore(uploadedFrom)) {
+            throw new BadRequestException("uploadedTo must not be before uploadedFrom");
+        }
+        String dept = department == null || department.isBlank() ? null : department.trim();
+        Instant from = uploadedFrom == null ? Instant.EPOCH : uploadedFrom.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = uploadedTo == null ? UPLOADED_MAX : uploadedTo.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        int size = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
 
-    public List<EmployeeDocument> listAll() {
-        return repository.findAll();
+        List<Long> ids = repository.findUploadEmployeeIds(parseCursor(cursor), dept, documentTypeId, from, to,
+                PageRequest.ofSize(size + 1));
+        String nextCursor = null;
+        if (ids.size() > size) {
+            ids = ids.subList(0, size);
+            nextCursor = String.valueOf(ids.get(size - 1));
+        }
+        if (ids.isEmpty()) {
+            return new DocumentGroupPage(List.of(), null);
+        }
+        return new DocumentGroupPage(repository.findUploadsOf(ids, dept, documentTypeId, from, to), nextCursor);
     }
 
     @Transactional
@@ -57,29 +89,39 @@ public class EmployeeDocumentService {
         DocumentType type = documentTypeRepository.findById(documentTypeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document type", documentTypeId));
         validateFileType(file);
-        
-        // Check if document already exists for this employee and document type
+        return replace(employee, type, storageService.storeEmployeeDocument(employee.getId(), file));
+    }
+
+    // Raw request body written straight to storage; no multipart spooling. No transaction (and no
+    // connection) is held while the body streams in, only around the row swap afterwards
+    public EmployeeDocument uploadStream(Employee employee, Long documentTypeId, InputStream body, String filename, String contentType) {
+        DocumentType type = documentTypeRepository.findById(documentTypeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document type", documentTypeId));
+        validateFileName(filename);
+        StoredUpload upload = storageService.receiveEmployeeDocument(employee.getId(), body, filename, contentType);
+        return transactionTemplate.execute(status -> {
+            AfterCommit.onRollback(() -> storageService.delete(upload.storedPath()));
+            return replace(employee, type, upload);
+        });
+    }
+
+    // The new file is stored first, so a failed upload keeps the previous document; its file goes after commit
+    public EmployeeDocument replace(Employee employee, DocumentType type, StoredUpload upload) {
+        if (!ALLOWED_CONTENT_TYPES.contains(upload.contentType())) {
+            storageService.delete(upload.storedPath());
+            throw new BadRequestException("File content is not a pdf, jpg or png");
+        }
         Optional<EmployeeDocument> existingDoc = repository.findByEmployeeAndDocumentType(employee, type);
-        
-        // Delete old document and file if exists
         if (existingDoc.isPresent()) {
-            EmployeeDocument oldDoc = existingDoc.get();
-            // Delete physical file
-            try {
-                Path filePath = baseDir.resolve(oldDoc.getStoredPath());
-                Files.deleteIfExists(filePath);
-            } catch (IOException e) {
-                // Log error but continue - file might already be deleted
-                System.err.println("Failed to delete old file: " + e.getMessage());
-            }
-            // Delete database record
-            repository.delete(oldDoc);
+            String oldPath = existingDoc.get().getStoredPath();
+            repository.delete(existingDoc.get());
+            AfterCommit.run(() -> storageService.delete(oldPath));
         }
-        
-        // Store new file
-        String storedPath = storageService.storeEmployeeDocument(employee.getId(), file);
-        EmployeeDocument doc = new EmployeeDocument(employee, type, file.getOriginalFilename(), storedPath, file.getContentType(), file.getSize());
-        return repository.save(doc);
+        EmployeeDocument doc = new EmployeeDocument(employee, type, upload.originalFilename(), upload.storedPath(),
+                upload.contentType(), upload.size(), upload.sha256());
+        EmployeeDocument saved = repository.save(doc);
+        complianceMatrix.employeeChanged(employee.getId());
+        return saved;
     }
 
     public boolean hasUploaded(Employee employee, DocumentType type) {
@@ -94,17 +136,29 @@ public class EmployeeDocumentService {
             throw new UnauthorizedException("Cannot delete document of other employee");
         }
         repository.delete(doc);
+        complianceMatrix.employeeChanged(employee.getId());
     }
 
     private void validateFileType(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new BadRequestException("File is required");
         }
-        String originalFilename = file.getOriginalFilename();
+        validateFileName(file.getOriginalFilename());
+    }
+
+    public void validateFileName(String originalFilename) {
         String name = (originalFilename == null ? "" : originalFilename).toLowerCase();
         if (!(name.endsWith(".pdf") || name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".png"))) {
             throw new BadRequestException("Only pdf, jpg, jpeg, png allowed");
         }
     }
-}
 
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0;
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
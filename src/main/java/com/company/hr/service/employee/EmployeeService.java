@@ -7,19 +7,20 @@ import com.company.hr.entity.auth.UserAccount;
 import com.company.hr.entity.employee.Employee;
 import com.company.hr.repository.auth.UserAccountRepository;
 import com.company.hr.repository.employee.EmployeeRepository;
+import com.company.hr.service.document.DocumentComplianceMatrix;
+import com.company.hr.service.storage.ImageDerivativeService;
 import com.company.hr.service.storage.StorageService;
 import com.company.hr.web.exception.ConflictException;
 import com.company.hr.web.exception.ResourceNotFoundException;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class EmployeeService {
@@ -28,18 +29,24 @@ public class EmployeeService {
     private final UserAccountRepository userAccountRepository;
     private final PasswordEncoder passwordEncoder;
     private final StorageService storageService;
-    private final Path baseDir;
+    private final RecipientDirectory recipientDirectory;
+    private final ImageDerivativeService imageDerivatives;
+    private final DocumentComplianceMatrix complianceMatrix;
 
     public EmployeeService(EmployeeRepository employeeRepository,
                            UserAccountRepository userAccountRepository,
                            PasswordEncoder passwordEncoder,
                            StorageService storageService,
-                           @Value("${app.storage.upload-dir:uploads}") String baseDir) {
+                           RecipientDirectory recipientDirectory,
+                           ImageDerivativeService imageDerivatives,
+                           DocumentComplianceMatrix complianceMatrix) {
         this.employeeRepository = employeeRepository;
         this.userAccountRepository = userAccountRepository;
         this.passwordEncoder = passwordEncoder;
         this.storageService = storageService;
-        this.baseDir = Path.of(baseDir);
+        this.recipientDirectory = recipientDirectory;
+        this.imageDerivatives = imageDerivatives;
+        this.complianceMatrix = complianceMatrix;
     }
 
     public List<Employee> findAll() {
@@ -51,7 +58,10 @@ public class EmployeeService {
                 .orElseGet(() -> {
                     if (user.getRole() == Role.ADMIN) {
                         Employee admin = new Employee(user, "Administrator", "Administrator", "Administration");
-                        return employeeRepository.save(admin);
+                        Employee saved = employeeRepository.save(admin);
+                        recipientDirectory.invalidate();
+                        complianceMatrix.employeeChanged(saved.getId());
+                        return saved;
                     }
                     throw new ResourceNotFoundException("Employee", "profile not found for user");
                 });
@@ -62,6 +72,21 @@ public class EmployeeService {
                 .orElseThrow(() -> new ResourceNotFoundException("Employee", id));
     }
 
+    // Resolves all ids with one query, in the order given; fails on the first unknown id
+    public List<Employee> getAllByIds(List<Long> ids) {
+        Map<Long, Employee> byId = employeeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        return ids.stream()
+                .map(id -> {
+                    Employee emp = byId.get(id);
+                    if (emp == null) {
+                        throw new ResourceNotFoundException("Employee", id);
+                    }
+                    return emp;
+                })
+                .toList();
+    }
+
     @Transactional
     public Employee create(EmployeeCreateRequest req) {
         if (userAccountRepository.existsByEmailIgnoreCase(req.email())) {
@@ -75,14 +100,19 @@ public class EmployeeService {
         userAccountRepository.save(account);
         Employee employee = new Employee(account, req.fullName(), req.position(), req.department());
         employee.updateProfile(req.fullName(), req.position(), req.department(), req.phone(), req.address(), req.dateOfBirth(), req.joinDate());
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        recipientDirectory.invalidate();
+        complianceMatrix.employeeChanged(saved.getId());
+        return saved;
     }
 
     @Transactional
     public Employee update(Long id, EmployeeRequest req) {
         Employee emp = getById(id);
         emp.updateProfile(req.fullName(), req.position(), req.department(), req.phone(), req.address(), req.dateOfBirth(), req.joinDate());
-        return employeeRepository.save(emp);
+        Employee saved = employeeRepository.save(emp);
+        recipientDirectory.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -92,6 +122,8 @@ public class EmployeeService {
         if (emp.getUserAccount() != null) {
             userAccountRepository.delete(emp.getUserAccount());
         }
+        recipientDirectory.invalidate();
+        complianceMatrix.employeeChanged(emp.getId());
     }
 
     @Transactional
@@ -99,7 +131,10 @@ public class EmployeeService {
         Employee emp = employeeRepository.findByUserAccount(user)
                 .orElseGet(() -> employeeRepository.save(new Employee(user, req.fullName(), req.position(), req.department())));
         emp.updateProfile(req.fullName(), req.position(), req.department(), req.phone(), req.address(), req.dateOfBirth(), req.joinDate());
-        return employeeRepository.save(emp);
+        Employee saved = employeeRepository.save(emp);
+        recipientDirectory.invalidate();
+        complianceMatrix.employeeChanged(saved.getId());
+        return saved;
     }
 
     @Transactional
@@ -124,18 +159,17 @@ public class EmployeeService {
 
         // Delete old photo if exists
         if (emp.getProfilePhotoPath() != null && !emp.getProfilePhotoPath().isEmpty()) {
-            try {
-                Path oldPhotoPath = baseDir.resolve(emp.getProfilePhotoPath());
-                Files.deleteIfExists(oldPhotoPath);
-            } catch (IOException e) {
-                System.err.println("Failed to delete old profile photo: " + e.getMessage());
-            }
+            storageService.delete(emp.getProfilePhotoPath());
+            imageDerivatives.delete(emp.getProfilePhotoPath());
         }
 
         // Store new photo
         String storedPath = storageService.storeProfilePhoto(emp.getId(), file);
         emp.setProfilePhotoPath(storedPath);
-        return employeeRepository.save(emp);
+        Employee saved = employeeRepository.save(emp);
+        imageDerivatives.generateAfterCommit(storedPath);
+        recipientDirectory.invalidate();
+        return saved;
     }
 }
 
@@ -0,0 +1,109 @@
+package com.company.hr.service.employee;
+
+import com.company.hr.dto.employee.RecipientResponse;
+import com.company.hr.entity.employee.Employee;
+import com.company.hr.repository.employee.EmployeeRepository;
+import com.company.hr.service.event.AfterCommit;
+import com.company.hr.service.event.ClusterEventBus;
+import com.company.hr.service.settings.AppSettingsChangedEvent;
+import com.company.hr.service.settings.UrlBuilder;
+import com.company.hr.service.storage.FileUrlSigner;
+import com.company.hr.service.storage.ImageDerivativeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Message recipient list, serialized once and served as-is until an employee or the photo base
+ * URL changes.
+ *
+ * invalidate() joins the caller's transaction: the local snapshot is dropped after commit and
+ * other nodes drop theirs through the cluster event bus. A snapshot built while an invalidation
+ * happened carries an outdated generation and is rebuilt on the next read. The ETag is a hash of
+ * the content, so it is the same on every node. Photo URLs are signed, so the snapshot is also
+ * rebuilt when FileUrlSigner starts a new window.
+ */
+@Component
+public class RecipientDirectory {
+
+    public static final String TOPIC = "recipient-directory";
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final EmployeeRepository employeeRepository;
+    private final UrlBuilder urlBuilder;
+    private final FileUrlSigner signer;
+    private final ObjectMapper objectMapper;
+    private final ClusterEventBus eventBus;
+
+    public RecipientDirectory(EmployeeRepository employeeRepository,
+                              UrlBuilder urlBuilder,
+                              FileUrlSigner signer,
+                              ObjectMapper objectMapper,
+                              ClusterEventBus eventBus) {
+        this.employeeRepository = employeeRepository;
+        this.urlBuilder = urlBuilder;
+        this.signer = signer;
+        this.objectMapper = objectMapper;
+        this.eventBus = eventBus;
+        eventBus.subscribe(TOPIC, event -> drop());
+        eventBus.subscribe(ClusterEventBus.RESYNC_TOPIC, event -> drop());
+    }
+
+    public Snapshot current() {
+        long gen = generation.get();
+        long window = signer.window();
+        Snapshot s = snapshot.get();
+        if (s != null && s.generation() == gen && s.window() == window) {
+            return s;
+        }
+        Snapshot built = build(gen, window);
+        snapshot.set(built);
+        return built;
+    }
+
+    // Photo URLs are built from the settings base URL
+    @EventListener
+    public void onSettingsChanged(AppSettingsChangedEvent event) {
+        drop();
+    }
+
+    public void invalidate() {
+        eventBus.publish(TOPIC, Map.of());
+        AfterCommit.run(this::drop);
+    }
+
+    private void drop() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    private Snapshot build(long gen, long window) {
+        List<RecipientResponse> entries = employeeRepository.findAll().stream()
+                .sorted(Comparator.comparing(Employee::getId))
+                .map(emp -> RecipientResponse.from(emp, urlBuilder.imageUrl(emp.getProfilePhotoPath(), ImageDerivativeService.SMALL)))
+                .toList();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(entries);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+            return new Snapshot(gen, window, json, etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to build recipient directory", e);
+        }
+    }
+
+    public record Snapshot(long generation, long window, byte[] json, String etag) {
+    }
+}
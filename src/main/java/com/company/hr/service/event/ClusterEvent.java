@@ -0,0 +1,11 @@
+package com.company.hr.service.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A notification delivered by {@link ClusterEventBus}.
+ *
+ * @param local true when the event was published by this node
+ */
+public record ClusterEvent(String topic, boolean local, JsonNode data) {
+}
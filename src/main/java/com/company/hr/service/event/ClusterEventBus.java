@@ -0,0 +1,192 @@
+package com.company.hr.service.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Small publish/subscribe bus shared by all app nodes.
+ *
+ * With transport "postgres" (default) events are sent with pg_notify inside the publishing
+ * transaction, so Postgres delivers them only after commit, to every node LISTENing on the
+ * channel, this one included. With transport "local" they are dispatched in-process after
+ * commit, which is enough for a single node.
+ */
+@Component
+public class ClusterEventBus implements SmartLifecycle {
+
+    public static final String CHANNEL = "hr_events";
+
+    // Published locally when the LISTEN connection is re-established; notifications may have been missed
+    public static final String RESYNC_TOPIC = "resync";
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<ClusterEvent>>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "cluster-event-dispatch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final boolean postgresTransport;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public ClusterEventBus(JdbcTemplate jdbcTemplate,
+                           DataSourceProperties dataSourceProperties,
+                           ObjectMapper objectMapper,
+                           @Value("${app.events.transport:postgres}") String transport) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.postgresTransport = "postgres".equalsIgnoreCase(transport);
+    }
+
+    public void subscribe(String topic, Consumer<ClusterEvent> handler) {
+        subscribers.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    public void publish(String topic, Object data) {
+        publishAll(topic, List.of(data));
+    }
+
+    // Delivered after the current transaction commits (immediately when none is active)
+    public void publishAll(String topic, List<?> data) {
+        if (data.isEmpty()) return;
+        List<String> payloads = data.stream()
+                .map(d -> toJson(Map.of("topic", topic, "origin", nodeId, "data", d)))
+                .toList();
+        if (postgresTransport) {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("SELECT pg_notify(?, p) FROM unnest(?::text[]) AS p");
+                ps.setString(1, CHANNEL);
+                ps.setArray(2, con.createArrayOf("text", payloads.toArray()));
+                return ps;
+            }, (RowCallbackHandler) rs -> { });
+        } else {
+            AfterCommit.run(() -> payloads.forEach(this::dispatch));
+        }
+    }
+
+    private void dispatch(String payload) {
+        JsonNode envelope;
+        try {
+            envelope = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            System.err.println("Ignoring malformed cluster event: " + e.getMessage());
+            return;
+        }
+        String topic = envelope.path("topic").asText();
+        boolean local = nodeId.equals(envelope.path("origin").asText());
+        deliver(new ClusterEvent(topic, local, envelope.path("data")));
+    }
+
+    private void deliver(ClusterEvent event) {
+        List<Consumer<ClusterEvent>> handlers = subscribers.getOrDefault(event.topic(), List.of());
+        for (Consumer<ClusterEvent> handler : handlers) {
+            dispatcher.execute(() -> {
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    System.err.println("Cluster event handler failed for " + event.topic() + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cluster event", e);
+        }
+    }
+
+    private void listenLoop() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    deliver(new ClusterEvent(RESYNC_TOPIC, true, objectMapper.nullNode()));
+                }
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) continue;
+                    for (PGNotification n : notifications) {
+                        dispatch(n.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) break;
+                System.err.println("Cluster event listener disconnected: " + e.getMessage());
+                reconnect = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (postgresTransport) {
+            listenerThread = new Thread(this::listenLoop, "cluster-event-listener");
+            listenerThread.setDaemon(true);
+            listenerThread.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        dispatcher.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
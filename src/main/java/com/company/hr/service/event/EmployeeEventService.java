@@ -0,0 +1,138 @@
+package com.company.hr.service.event;
+
+import com.company.hr.entity.leave.LeaveRequest;
+import com.company.hr.entity.message.InternalMessage;
+import com.company.hr.service.message.UnreadCounterCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-Sent Events channel per employee (unread count, new messages, leave status).
+ *
+ * Services publish through the {@link ClusterEventBus}, so events leave only after commit and
+ * reach whichever node holds the employee's open streams. An idle stream is just a registered
+ * emitter plus a periodic heartbeat comment; the unread count is only queried when an event
+ * arrives for an employee that has a stream open on this node.
+ */
+@Service
+public class EmployeeEventService {
+
+    public static final String TOPIC = "employee-event";
+
+    public static final String UNREAD_COUNT = "unread-count";
+    public static final String NEW_MESSAGE = "new-message";
+    public static final String LEAVE_STATUS = "leave-status";
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final ClusterEventBus eventBus;
+    private final UnreadCounterCache unreadCounters;
+    private final long emitterTimeoutMs;
+
+    public EmployeeEventService(ClusterEventBus eventBus,
+                                UnreadCounterCache unreadCounters,
+                                @Value("${app.events.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.eventBus = eventBus;
+        this.unreadCounters = unreadCounters;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        eventBus.subscribe(TOPIC, this::onEvent);
+    }
+
+    public SseEmitter subscribe(Long employeeId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitters.computeIfAbsent(employeeId, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+        emitter.onCompletion(() -> remove(employeeId, emitter));
+        emitter.onTimeout(() -> remove(employeeId, emitter));
+        emitter.onError(e -> remove(employeeId, emitter));
+        // Current state first, so clients never need to poll after (re)connecting
+        send(employeeId, emitter, UNREAD_COUNT, unreadCount(employeeId));
+        return emitter;
+    }
+
+    public void unreadCountChanged(Collection<Long> employeeIds) {
+        eventBus.publishAll(TOPIC, employeeIds.stream()
+                .distinct()
+                .map(id -> new EmployeeEvent(id, UNREAD_COUNT, Map.of()))
+                .toList());
+    }
+
+    public void messagesReceived(List<InternalMessage> messages) {
+        List<EmployeeEvent> events = new ArrayList<>(messages.size() * 2);
+        for (InternalMessage msg : messages) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("messageId", msg.getId());
+            data.put("threadId", msg.getThreadId());
+            data.put("senderId", msg.getSender().getId());
+            data.put("senderName", msg.getSender().getFullName());
+            data.put("subject", msg.getSubject());
+            events.add(new EmployeeEvent(msg.getReceiver().getId(), NEW_MESSAGE, data));
+            events.add(new EmployeeEvent(msg.getReceiver().getId(), UNREAD_COUNT, Map.of()));
+        }
+        eventBus.publishAll(TOPIC, events);
+    }
+
+    public void leaveStatusChanged(LeaveRequest lr) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("leaveRequestId", lr.getId());
+        data.put("status", lr.getStatus().name());
+        eventBus.publish(TOPIC, new EmployeeEvent(lr.getEmployee().getId(), LEAVE_STATUS, data));
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((employeeId, set) -> set.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                remove(employeeId, emitter);
+            }
+        }));
+    }
+
+    private void onEvent(ClusterEvent event) {
+        long employeeId = event.data().path("employeeId").asLong();
+        String type = event.data().path("type").asText();
+        if (UNREAD_COUNT.equals(type) && !event.local()) {
+            // Committed on another node: this node's cached counter has not seen the change
+            unreadCounters.evict(employeeId);
+        }
+        Set<SseEmitter> targets = emitters.get(employeeId);
+        if (targets == null || targets.isEmpty()) return;
+        Object data = UNREAD_COUNT.equals(type) ? unreadCount(employeeId) : event.data().path("data");
+        for (SseEmitter emitter : targets) {
+            send(employeeId, emitter, type, data);
+        }
+    }
+
+    private Map<String, Long> unreadCount(Long employeeId) {
+        return Map.of("unreadCount", unreadCounters.get(employeeId));
+    }
+
+    private void send(Long employeeId, SseEmitter emitter, String type, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(type).data(data));
+        } catch (IOException | IllegalStateException e) {
+            remove(employeeId, emitter);
+        }
+    }
+
+    private void remove(Long employeeId, SseEmitter emitter) {
+        emitters.computeIfPresent(employeeId, (k, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    record EmployeeEvent(Long employeeId, String type, Object data) {
+    }
+}
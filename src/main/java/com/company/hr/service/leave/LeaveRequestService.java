@@ -4,8 +4,12 @@ import com.company.hr.dto.leave.LeaveRequestCreate;
 import com.company.hr.entity.employee.Employee;
 import com.company.hr.entity.leave.LeaveRequest;
 import com.company.hr.entity.leave.LeaveStatus;
+import com.company.hr.entity.storage.UploadKind;
 import com.company.hr.repository.leave.LeaveRequestRepository;
+import com.company.hr.service.event.EmployeeEventService;
+import com.company.hr.service.storage.FileUploadService;
 import com.company.hr.service.storage.StorageService;
+import com.company.hr.web.exception.BadRequestException;
 import com.company.hr.web.exception.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,10 +22,17 @@ public class LeaveRequestService {
 
     private final LeaveRequestRepository repository;
     private final StorageService storageService;
+    private final FileUploadService uploadService;
+    private final EmployeeEventService eventService;
 
-    public LeaveRequestService(LeaveRequestRepository repository, StorageService storageService) {
+    public LeaveRequestService(LeaveRequestRepository repository,
+                               StorageService storageService,
+                               FileUploadService uploadService,
+                               EmployeeEventService eventService) {
         this.repository = repository;
         this.storageService = storageService;
+        this.uploadService = uploadService;
+        this.eventService = eventService;
     }
 
     public List<LeaveRequest> listAll() {
@@ -35,7 +46,13 @@ public class LeaveRequestService {
     @Transactional
     public LeaveRequest create(Employee employee, LeaveRequestCreate req, MultipartFile attachment) {
         String path = null;
-        if (attachment != null && !attachment.isEmpty()) {
+        boolean hasAttachment = attachment != null && !attachment.isEmpty();
+        if (hasAttachment && req.attachmentUploadId() != null) {
+            throw new BadRequestException("Send either an attachment or an attachmentUploadId, not both");
+        }
+        if (req.attachmentUploadId() != null) {
+            path = uploadService.claim(employee, req.attachmentUploadId(), UploadKind.LEAVE_ATTACHMENT).storedPath();
+        } else if (hasAttachment) {
             path = storageService.storeLeaveAttachment(employee.getId(), attachment);
         }
         LeaveRequest lr = new LeaveRequest(employee, req.startDate(), req.endDate(), req.reason(), path);
@@ -47,7 +64,9 @@ public class LeaveRequestService {
         LeaveRequest lr = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Leave request", id));
         lr.setStatus(status);
-        return repository.save(lr);
+        LeaveRequest saved = repository.save(lr);
+        eventService.leaveStatusChanged(saved);
+        return saved;
     }
 
     public long countByStatus(LeaveStatus status) {
@@ -3,21 +3,32 @@ package com.company.hr.service.message;
 import com.company.hr.dto.message.InternalMessageRequest;
 import com.company.hr.entity.employee.Employee;
 import com.company.hr.entity.message.InternalMessage;
+import com.company.hr.entity.storage.UploadKind;
+import com.company.hr.repository.message.InternalMessageBatchRepository;
+import com.company.hr.repository.message.InternalMessageBatchRepository.NewMessageRow;
 import com.company.hr.repository.message.InternalMessageRepository;
+import com.company.hr.repository.message.InternalMessageRepository.SearchHitRow;
 import com.company.hr.service.employee.EmployeeService;
+import com.company.hr.service.event.EmployeeEventService;
+import com.company.hr.service.storage.FileUploadService;
 import com.company.hr.service.storage.StorageService;
+import com.company.hr.service.storage.StoredUpload;
+import com.company.hr.web.exception.BadRequestException;
 import com.company.hr.web.exception.ResourceNotFoundException;
 import com.company.hr.web.exception.UnauthorizedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.HtmlUtils;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,70 +37,114 @@ public class InternalMessageService {
     private final InternalMessageRepository repository;
     private final EmployeeService employeeService;
     private final StorageService storageService;
+    private final FileUploadService uploadService;
+    private final MessageThreadService threadService;
+    private final InternalMessageBatchRepository batchRepository;
+    private final EmployeeEventService eventService;
+    private final UnreadCounterCache unreadCounters;
+    private final ReadReceiptBuffer readReceipts;
 
-    public InternalMessageService(InternalMessageRepository repository, EmployeeService employeeService, StorageService storageService) {
+    public InternalMessageService(InternalMessageRepository repository,
+                                  EmployeeService employeeService,
+                                  StorageService storageService,
+                                  FileUploadService uploadService,
+                                  MessageThreadService threadService,
+                                  InternalMessageBatchRepository batchRepository,
+                                  EmployeeEventService eventService,
+                                  UnreadCounterCache unreadCounters,
+                                  ReadReceiptBuffer readReceipts) {
         this.repository = repository;
+        this.readReceipts = readReceipts;
+        this.unreadCounters = unreadCounters;
+        this.batchRepository = batchRepository;
+        this.eventService = eventService;
         this.employeeService = employeeService;
         this.storageService = storageService;
+        this.uploadService = uploadService;
+        this.threadService = threadService;
     }
 
-    // Returns only the latest message for each thread in the inbox
-    public List<InternalMessage> getInbox(Employee employee) {
-        List<Long> threadIds = repository.findDistinctThreadIdsForEmployee(employee);
-        return threadIds.stream()
-                .map(threadId -> {
-                    List<InternalMessage> messages = repository.findMessagesInThreadForEmployee(threadId, employee);
-                    return messages.stream()
-                            .filter(msg -> msg.getReceiver().getId().equals(employee.getId())) // Only show messages where current employee is the receiver
-                            .findFirst();
-                })
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .sorted((m1, m2) -> m2.getCreatedAt().compareTo(m1.getCreatedAt()))
-                .collect(Collectors.toList());
-    }
-
-    // Returns only the latest message for each thread in the sent box
-    // When sender sends to multiple recipients with the same body, only 1 message per unique body+subject+threadId is returned
-    // Messages are sorted by createdAt DESC (newest first)
-    public List<InternalMessage> getSent(Employee employee) {
-        // Get all messages sent by this employee, ordered by createdAt DESC (newest first)
-        List<InternalMessage> allSentMessages = repository.findBySenderOrderByCreatedAtDesc(employee);
-        
-        // Group by body + subject + threadId to handle multiple recipients
-        // When sending to multiple recipients with same body/subject, they share the same threadId
-        // So we group by body+subject+threadId to get only 1 entry per batch send
-        // Use LinkedHashMap to preserve insertion order (newest first from query)
-        Map<String, InternalMessage> grouped = new LinkedHashMap<>();
-        for (InternalMessage msg : allSentMessages) {
-            // Normalize body and subject (trim whitespace, normalize spaces, handle null)
-            String body = msg.getBody() != null ? msg.getBody().trim().replaceAll("\\s+", " ") : "";
-            String subject = msg.getSubject() != null ? msg.getSubject().trim().replaceAll("\\s+", " ") : "";
-            Long threadId = msg.getThreadId();
-            
-            // Create unique key from body + subject + threadId
-            // Messages with same body, subject, and threadId are considered duplicates (same batch send)
-            String key = body + "|||" + subject + "|||" + (threadId != null ? threadId.toString() : "null");
-            
-            // If key doesn't exist yet, add it (since query is already ordered DESC, first one is newest)
-            // This ensures only 1 entry per unique body+subject+threadId combination
-            if (!grouped.containsKey(key)) {
-                grouped.put(key, msg);
-            }
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    // Returns only the latest received message for each thread in the inbox, newest first.
+    // One set-based query per page; cursor continues after the last (createdAt, id) returned.
+    public MessagePage getInbox(Employee employee, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        MessageCursor after = MessageCursor.decode(cursor);
+        List<Long> ids = after == null
+                ? repository.findLatestReceivedIdsPerThread(employee.getId(), pageSize + 1)
+                : repository.findLatestReceivedIdsPerThreadBefore(employee.getId(), after.createdAt(), after.id(), pageSize + 1);
+        return MessagePage.of(loadInOrder(ids), pageSize);
+    }
+
+    // Returns one entry per send in the sent box: copies of a multi-recipient send share a batch id.
+    // Sorted by createdAt DESC (newest first), keyset paginated like the inbox.
+    public MessagePage getSent(Employee employee, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        MessageCursor after = MessageCursor.decode(cursor);
+        List<Long> ids = after == null
+                ? repository.findLatestSentIdsPerBatch(employee.getId(), pageSize + 1)
+                : repository.findLatestSentIdsPerBatchBefore(employee.getId(), after.createdAt(), after.id(), pageSize + 1);
+        return MessagePage.of(loadInOrder(ids), pageSize);
+    }
+
+    // Full-text search across the employee's threads, ranked; see InternalMessageRepository.search
+    public MessageSearchPage search(Employee employee, String q, String cursor, int limit) {
+        String query = q == null ? "" : q.trim();
+        if (query.isEmpty()) {
+            throw new BadRequestException("Search query is required");
         }
-        
-        // Return as list (already sorted by createdAt DESC from query, LinkedHashMap preserves order)
-        return new ArrayList<>(grouped.values());
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new BadRequestException("Search query is too long");
+        }
+        int pageSize = clampPageSize(limit);
+        SearchCursor after = SearchCursor.decode(cursor);
+        List<SearchHitRow> rows = after == null
+                ? repository.search(employee.getId(), query, pageSize + 1)
+                : repository.searchAfter(employee.getId(), query, after.rank(), after.id(), pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            SearchHitRow last = rows.get(pageSize - 1);
+            nextCursor = new SearchCursor(last.getRank(), last.getId()).encode();
+        }
+        Map<Long, InternalMessage> messages = repository.findWithParticipantsByIdIn(rows.stream().map(SearchHitRow::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(InternalMessage::getId, Function.identity()));
+        List<MessageSearchHit> hits = new ArrayList<>(rows.size());
+        for (SearchHitRow row : rows) {
+            InternalMessage msg = messages.get(row.getId());
+            if (msg == null) continue; // deleted between the two queries
+            hits.add(new MessageSearchHit(msg, row.getRank(),
+                    escapeHighlight(row.getSubjectHighlight()), escapeHighlight(row.getBodyHighlight())));
+        }
+        return new MessageSearchPage(hits, nextCursor);
+    }
+
+    // Highlights carry user text: escape everything, then restore only the <mark> tags ts_headline added
+    private static String escapeHighlight(String highlight) {
+        if (highlight == null) return null;
+        return HtmlUtils.htmlEscape(highlight)
+                .replace("&lt;mark&gt;", "<mark>")
+                .replace("&lt;/mark&gt;", "</mark>");
     }
 
     public long getUnreadCount(Employee employee) {
-        return repository.countByReceiverAndIsReadFalse(employee);
+        return unreadCounters.get(employee.getId());
+    }
+
+    // After markAsRead has committed: a mark still queued by write-behind is not in the counter yet
+    public long getUnreadCountAfterRead(Employee employee, Long messageId) {
+        long count = unreadCounters.get(employee.getId());
+        return readReceipts.isPending(messageId) ? Math.max(0, count - 1) : count;
     }
 
     public List<InternalMessage> getThreadById(Employee employee, Long threadId) {
         Long safeThreadId = Objects.requireNonNull(threadId, "threadId");
-        boolean hasAccess = repository.existsByThreadIdAndSenderOrThreadIdAndReceiver(safeThreadId, employee, safeThreadId, employee);
-        if (!hasAccess) {
+        if (!threadService.isParticipant(safeThreadId, employee)) {
             throw new UnauthorizedException("Cannot view this thread");
         }
         return repository.findByThreadIdOrderByCreatedAtAsc(safeThreadId);
@@ -121,71 +176,109 @@ public class InternalMessageService {
         String attachmentName = null;
         String attachmentType = null;
         Long attachmentSize = null;
-        if (attachment != null && !attachment.isEmpty()) {
-            storedPath = storageService.storeMessageAttachment(sender.getId(), attachment);
-            attachmentName = attachment.getOriginalFilename();
-            attachmentType = attachment.getContentType();
-            attachmentSize = attachment.getSize();
+        boolean hasAttachment = attachment != null && !attachment.isEmpty();
+        if (hasAttachment && req.attachmentUploadId() != null) {
+            throw new BadRequestException("Send either an attachment or an attachmentUploadId, not both");
+        }
+        StoredUpload upload = null;
+        if (req.attachmentUploadId() != null) {
+            upload = uploadService.claim(sender, req.attachmentUploadId(), UploadKind.MESSAGE_ATTACHMENT);
+        } else if (hasAttachment) {
+            upload = storageService.storeMessageAttachment(sender.getId(), attachment);
+        }
+        if (upload != null) {
+            storedPath = upload.storedPath();
+            attachmentName = upload.originalFilename();
+            attachmentType = upload.contentType();
+            attachmentSize = upload.size();
         }
 
-        List<InternalMessage> savedMessages = new ArrayList<>();
-        List<Long> receiverIds = Objects.requireNonNull(req.receiverIds(), "receiverIds");
-        boolean threadInitialized = threadId != null;
-        
-        // Save all messages first
-        for (int i = 0; i < receiverIds.size(); i++) {
-            Long receiverId = receiverIds.get(i);
-            Long safeReceiverId = Objects.requireNonNull(receiverId, "receiverId");
-            Employee receiver = employeeService.getById(safeReceiverId);
-            InternalMessage msg = new InternalMessage(sender, receiver, req.subject(), req.body(), replyTo);
-            msg.setThreadId(threadId);
-            if (storedPath != null) {
-                msg.setAttachmentPath(storedPath);
-                msg.setAttachmentName(attachmentName);
-                msg.setAttachmentType(attachmentType);
-                msg.setAttachmentSize(attachmentSize);
-            }
-            InternalMessage saved = repository.save(msg);
-            savedMessages.add(saved);
-            
-            // Set threadId to first message's ID if not initialized
-            if (!threadInitialized) {
-                threadId = saved.getId();
-                threadInitialized = true;
-            }
+        // Duplicate receivers would collide on the (thread, employee) participant row
+        List<Long> receiverIds = Objects.requireNonNull(req.receiverIds(), "receiverIds").stream()
+                .map(id -> Objects.requireNonNull(id, "receiverId"))
+                .distinct()
+                .toList();
+        List<Employee> receivers = employeeService.getAllByIds(receiverIds);
+
+        // Ids are reserved up front so thread and batch ids are known before anything is written:
+        // a new thread and the send itself are both identified by the first copy's id
+        List<Long> ids = batchRepository.reserveIds(receivers.size());
+        Long batchId = ids.get(0);
+        if (threadId == null) {
+            threadId = batchId;
         }
-        
-        // Now update all messages to have the same threadId
-        // This ensures all messages in the same batch have the same threadId
-        if (threadId != null) {
-            for (InternalMessage msg : savedMessages) {
-                if (!threadId.equals(msg.getThreadId())) {
-                    msg.setThreadId(threadId);
-                    repository.save(msg);
-                }
-            }
+        Long replyToIdValue = replyTo != null ? replyTo.getId() : null;
+        // Postgres keeps microseconds; truncate so summaries match the stored created_at exactly
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        List<NewMessageRow> rows = new ArrayList<>(receivers.size());
+        for (int i = 0; i < receivers.size(); i++) {
+            rows.add(new NewMessageRow(ids.get(i), sender.getId(), receivers.get(i).getId(),
+                    req.subject(), req.body(), replyToIdValue, threadId, batchId,
+                    storedPath, attachmentName, attachmentType, attachmentSize, now));
         }
-        
+        batchRepository.insertAll(rows);
+        threadService.recordSend(threadId, sender, req.subject(), ids, now);
+        unreadCounters.adjustAfterCommit(receiverIds.stream().collect(Collectors.toMap(Function.identity(), id -> 1L)));
+
+        List<InternalMessage> savedMessages = new ArrayList<>(repository.findWithParticipantsByIdIn(ids));
+        savedMessages.sort(Comparator.comparing(InternalMessage::getId));
+        eventService.messagesReceived(savedMessages);
         return savedMessages;
     }
 
+    // Loads the page rows with sender / receiver in one query, keeping the order of ids
+    private List<InternalMessage> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, InternalMessage> byId = repository.findWithParticipantsByIdIn(ids).stream()
+                .collect(Collectors.toMap(InternalMessage::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private int clampPageSize(int limit) {
+        if (limit <= 0) return DEFAULT_PAGE_SIZE;
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // The read mark is written in this transaction (or queued when write-behind is enabled); the returned
+    // message already shows it read. The entity is loaded read-only, so the flag set here is never flushed.
     @Transactional
     public InternalMessage markAsRead(Long messageId, Employee employee) {
         Long safeMessageId = Objects.requireNonNull(messageId, "messageId");
-        InternalMessage msg = repository.findById(safeMessageId)
+        InternalMessage msg = repository.findReadOnlyWithParticipantsById(safeMessageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Message", safeMessageId));
         
         if (!msg.getReceiver().getId().equals(employee.getId())) {
             throw new UnauthorizedException("Cannot mark message as read - not the receiver");
         }
         
+        if (Boolean.TRUE.equals(msg.getIsRead())) {
+            return msg;
+        }
+        readReceipts.submit(msg.getId(), employee.getId());
         msg.setIsRead(true);
-        return repository.save(msg);
+        return msg;
+    }
+
+    // Marks every message the employee received in the thread as read in one statement
+    @Transactional
+    public int markThreadAsRead(Long threadId, Employee employee) {
+        Long safeThreadId = Objects.requireNonNull(threadId, "threadId");
+        if (!threadService.isParticipant(safeThreadId, employee)) {
+            throw new UnauthorizedException("Cannot mark this thread as read");
+        }
+        int updated = repository.markThreadRead(safeThreadId, employee.getId());
+        if (updated > 0) {
+            threadService.recordThreadRead(safeThreadId, employee);
+            unreadCounters.adjustAfterCommit(employee.getId(), -updated);
+            eventService.unreadCountChanged(List.of(employee.getId()));
+        }
+        return updated;
     }
 
     public InternalMessage getById(Long messageId, Employee employee) {
         Long safeMessageId = Objects.requireNonNull(messageId, "messageId");
-        InternalMessage msg = repository.findById(safeMessageId)
+        InternalMessage msg = repository.findWithParticipantsById(safeMessageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Message", safeMessageId));
         
         // Only sender or receiver can view the message
@@ -210,5 +303,11 @@ public class InternalMessageService {
         }
         
         repository.delete(msg);
+        repository.flush();
+        threadService.recordDelete(msg);
+        if (!Boolean.TRUE.equals(msg.getIsRead())) {
+            unreadCounters.adjustAfterCommit(msg.getReceiver().getId(), -1);
+            eventService.unreadCountChanged(List.of(msg.getReceiver().getId()));
+        }
     }
 }
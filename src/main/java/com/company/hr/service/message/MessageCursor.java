@@ -0,0 +1,35 @@
+package com.company.hr.service.message;
+
+import com.company.hr.web.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for message listings, ordered by (createdAt DESC, id DESC).
+ */
+public record MessageCursor(Instant createdAt, Long id) {
+
+    public static MessageCursor of(Instant createdAt, Long id) {
+        return new MessageCursor(createdAt, id);
+    }
+
+    public static MessageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('_');
+            return new MessageCursor(Instant.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
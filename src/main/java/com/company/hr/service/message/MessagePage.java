@@ -0,0 +1,18 @@
+package com.company.hr.service.message;
+
+import com.company.hr.entity.message.InternalMessage;
+
+import java.util.List;
+
+public record MessagePage(List<InternalMessage> messages, String nextCursor) {
+
+    // Callers fetch limit + 1 rows; the extra row only signals that another page exists
+    static MessagePage of(List<InternalMessage> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new MessagePage(rows, null);
+        }
+        List<InternalMessage> page = rows.subList(0, limit);
+        InternalMessage last = page.get(limit - 1);
+        return new MessagePage(List.copyOf(page), MessageCursor.of(last.getCreatedAt(), last.getId()).encode());
+    }
+}
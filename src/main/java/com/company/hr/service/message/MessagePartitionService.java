@@ -0,0 +1,340 @@
+package com.company.hr.service.message;
+
+import com.company.hr.dto.system.MessageArchiveResponse;
+import com.company.hr.dto.system.MessagePartitionResponse;
+import com.company.hr.repository.message.MessagePartitionRepository;
+import com.company.hr.repository.message.MessagePartitionRepository.PartitionRow;
+import com.company.hr.service.event.EmployeeEventService;
+import com.company.hr.service.storage.BlobInfo;
+import com.company.hr.service.storage.BlobStore;
+import com.company.hr.web.exception.BadRequestException;
+import com.company.hr.web.exception.ConflictException;
+import com.company.hr.web.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Creates upcoming monthly partitions of internal_messages and archives expired ones.
+ *
+ * Archiving a month exports its partition as gzipped CSV to archive/internal_messages/ in the
+ * BlobStore while it is still attached, then detaches it concurrently and, in one short transaction,
+ * removes its messages from the thread summaries and unread counters and drops it. If the file cannot
+ * be written nothing changes; messages read or deleted during the export are caught by comparing a
+ * fingerprint after the detach and exporting again. Attachment files of an archived month stay in
+ * storage and are listed in archived_message_attachments until it is restored, so the orphan file
+ * collector keeps them.
+ *
+ * A restore loads the archive into a standalone table, adds a CHECK matching the month so the attach
+ * does not scan it, and attaches it with its summaries rebuilt; the month is skipped by the retention
+ * job from then on. Reply links from newer messages to archived ones are cleared and not brought back.
+ *
+ * Archive and restore take a session-level advisory lock and creating partitions a transaction-scoped
+ * one on the same key, so only one node runs them at a time.
+ */
+@Service
+public class MessagePartitionService {
+
+    private static final long MAINTENANCE_LOCK = 0x6872_6d73_6770_6172L;
+    private static final String ARCHIVE_SUFFIX = ".csv.gz";
+
+    private final MessagePartitionRepository partitionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCounterCache unreadCounters;
+    private final EmployeeEventService eventService;
+    private final BlobStore blobStore;
+    private final String archivePrefix;
+    private final int premakeMonths;
+    private final boolean retentionEnabled;
+    private final int retentionMonths;
+
+    public MessagePartitionService(MessagePartitionRepository partitionRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   UnreadCounterCache unreadCounters,
+                                   EmployeeEventService eventService,
+                                   BlobStore blobStore,
+                                   @Value("${app.messages.partitions.premake-months:2}") int premakeMonths,
+                                   @Value("${app.messages.retention.enabled:false}") boolean retentionEnabled,
+                                   @Value("${app.messages.retention.months:24}") int retentionMonths) {
+        this.partitionRepository = partitionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unreadCounters = unreadCounters;
+        this.eventService = eventService;
+        this.blobStore = blobStore;
+        this.archivePrefix = "archive/" + MessagePartitionRepository.PARENT + "/";
+        this.premakeMonths = premakeMonths;
+        this.retentionEnabled = retentionEnabled;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.messages.retention.cron:0 30 2 * * *}")
+    public void runMaintenance() {
+        try {
+            ensureUpcomingPartitions();
+            if (retentionEnabled) {
+                archiveExpired();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Message partition maintenance failed: " + e.getMessage());
+        }
+    }
+
+    public void ensureUpcomingPartitions() {
+        if (!partitionRepository.isPartitioned()) {
+            System.err.println("internal_messages is not partitioned; apply ddl.sql to enable partition maintenance");
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        inLockedTransaction(() -> {
+            for (int i = 0; i <= premakeMonths; i++) {
+                partitionRepository.createPartition(current.plusMonths(i));
+            }
+        });
+    }
+
+    // Archives every attached month older than the retention window, oldest first
+    public List<YearMonth> archiveExpired() {
+        YearMonth cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+        List<YearMonth> archived = new ArrayList<>();
+        for (PartitionRow row : partitionRepository.listPartitions()) {
+            YearMonth month = MessagePartitionRepository.monthOf(row.name());
+            if (month == null || !month.isBefore(cutoff)) continue;
+            if (MessagePartitionRepository.RESTORED_COMMENT.equals(row.comment())) continue;
+            archive(month);
+            archived.add(month);
+        }
+        return archived;
+    }
+
+    public List<MessagePartitionResponse> listPartitions() {
+        return partitionRepository.listPartitions().stream()
+                .filter(row -> MessagePartitionRepository.monthOf(row.name()) != null)
+                .map(row -> new MessagePartitionResponse(row.name(),
+                        MessagePartitionRepository.monthOf(row.name()).toString(),
+                        MessagePartitionRepository.RESTORED_COMMENT.equals(row.comment())))
+                .toList();
+    }
+
+    public List<MessageArchiveResponse> listArchives() {
+        try {
+            return blobStore.list(archivePrefix).stream()
+                    .filter(blob -> blob.key().endsWith(ARCHIVE_SUFFIX))
+                    .map(this::toArchiveResponse)
+                    .filter(a -> a.month() != null)
+                    .sorted((a, b) -> a.month().compareTo(b.month()))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void archive(String monthValue) {
+        YearMonth month = parseMonth(monthValue);
+        if (!month.isBefore(YearMonth.now(ZoneOffset.UTC))) {
+            throw new BadRequestException("Only past months can be archived");
+        }
+        archive(month);
+    }
+
+    private void archive(YearMonth month) {
+        PartitionRow row = requireAttached(month, true);
+        String target = archiveKey(month);
+        withLock(() -> {
+            String exported = export(month, target);
+            partitionRepository.detachPartitionConcurrently(month, row.detachPending());
+            try {
+                if (!exported.equals(partitionRepository.fingerprint(month))) {
+                    // Nothing writes to the table once it is detached
+                    export(month, target);
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    Map<Long, Long> unread = partitionRepository.unreadByReceiver(month);
+                    partitionRepository.releaseSummaries(month);
+                    partitionRepository.rememberAttachments(month);
+                    partitionRepository.dropPartition(month);
+                    unreadCounters.adjustAfterCommit(negate(unread));
+                    eventService.unreadCountChanged(unread.keySet());
+                });
+            } catch (RuntimeException e) {
+                // The detach left a CHECK matching the month behind, so this does not scan the table
+                partitionRepository.attachPartition(month);
+                throw e;
+            }
+        });
+    }
+
+    // Writes the month to the archive file; returns the fingerprint taken before the copy
+    private String export(YearMonth month, String target) {
+        String fingerprint = partitionRepository.fingerprint(month);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile("message-archive-", ARCHIVE_SUFFIX);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                partitionRepository.copyOut(month, out);
+            }
+            blobStore.putFile(target, temp, "application/gzip");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write message archive " + target, e);
+        } finally {
+            deleteQuietly(temp);
+        }
+        return fingerprint;
+    }
+
+    public void restore(String monthValue) {
+        YearMonth month = parseMonth(monthValue);
+        String source = archiveKey(month);
+        if (stat(source) == null) {
+            throw new ResourceNotFoundException("Message archive", monthValue);
+        }
+        requireAttached(month, false);
+        try {
+            withLock(() -> {
+                partitionRepository.createStandalone(month);
+                try {
+                    try (InputStream in = new GZIPInputStream(blobStore.get(source))) {
+                        partitionRepository.copyIn(month, in);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Cannot read message archive " + source, e);
+                    }
+                    partitionRepository.addRangeCheck(month);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        partitionRepository.attachPartition(month);
+                        partitionRepository.dropRangeCheck(month);
+                        partitionRepository.markRestored(month);
+                        partitionRepository.forgetAttachments(month);
+                        partitionRepository.rebuildSummaries(month);
+                        Map<Long, Long> unread = partitionRepository.unreadByReceiver(month);
+                        unreadCounters.adjustAfterCommit(unread);
+                        eventService.unreadCountChanged(unread.keySet());
+                    });
+                } catch (RuntimeException e) {
+                    // The attach rolled back, so the table is still standalone
+                    partitionRepository.dropPartition(month);
+                    throw e;
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Archive " + monthValue + " has messages outside its month or references employees that no longer exist");
+        }
+    }
+
+    private PartitionRow requireAttached(YearMonth month, boolean attached) {
+        String name = MessagePartitionRepository.partitionName(month);
+        PartitionRow present = partitionRepository.listPartitions().stream()
+                .filter(row -> row.name().equals(name)).findFirst().orElse(null);
+        if (attached && present == null) {
+            throw new ResourceNotFoundException("Message partition", month.toString());
+        }
+        if (!attached && present != null) {
+            throw new ConflictException("Message partition " + month + " is already attached");
+        }
+        return present;
+    }
+
+    private void inLockedTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK);
+            if (!Boolean.TRUE.equals(locked)) {
+                throw new ConflictException("Message partition maintenance is already running");
+            }
+            work.run();
+        });
+    }
+
+    // Session-level lock on a connection of its own, so the export and the concurrent detach can run
+    // outside a transaction while it is held
+    private void withLock(Runnable work) {
+        Boolean locked = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            if (!advisoryLock(con, "SELECT pg_try_advisory_lock(?)")) return false;
+            try {
+                work.run();
+                return true;
+            } finally {
+                advisoryLock(con, "SELECT pg_advisory_unlock(?)");
+            }
+        });
+        if (!Boolean.TRUE.equals(locked)) {
+            throw new ConflictException("Message partition maintenance is already running");
+        }
+    }
+
+    private static boolean advisoryLock(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, MAINTENANCE_LOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private String archiveKey(YearMonth month) {
+        return archivePrefix + MessagePartitionRepository.partitionName(month) + ARCHIVE_SUFFIX;
+    }
+
+    private BlobInfo stat(String key) {
+        try {
+            return blobStore.stat(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MessageArchiveResponse toArchiveResponse(BlobInfo blob) {
+        String fileName = blob.key().substring(blob.key().lastIndexOf('/') + 1);
+        YearMonth month = MessagePartitionRepository.monthOf(fileName.substring(0, fileName.length() - ARCHIVE_SUFFIX.length()));
+        return new MessageArchiveResponse(month != null ? month.toString() : null, fileName, blob.size(), blob.lastModified());
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Temp file; best effort
+        }
+    }
+
+    private static YearMonth parseMonth(String value) {
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Month must be formatted as yyyy-MM");
+        }
+    }
+
+    private static Map<Long, Long> negate(Map<Long, Long> counts) {
+        return counts.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> -e.getValue()));
+    }
+}
@@ -0,0 +1,6 @@
+package com.company.hr.service.message;
+
+import com.company.hr.entity.message.InternalMessage;
+
+public record MessageSearchHit(InternalMessage message, float rank, String subjectHighlight, String bodyHighlight) {
+}
@@ -0,0 +1,6 @@
+package com.company.hr.service.message;
+
+import java.util.List;
+
+public record MessageSearchPage(List<MessageSearchHit> hits, String nextCursor) {
+}
@@ -0,0 +1,63 @@
+package com.company.hr.service.message;
+
+import com.company.hr.entity.employee.Employee;
+import com.company.hr.entity.message.InternalMessage;
+import com.company.hr.repository.message.MessageThreadRepository;
+import com.company.hr.repository.message.ThreadParticipantRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps message_threads and thread_participants in step with internal_messages.
+ * Every method joins the caller's transaction so the summaries commit or roll back
+ * together with the messages they describe.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class MessageThreadService {
+
+    private final MessageThreadRepository threadRepository;
+    private final ThreadParticipantRepository participantRepository;
+
+    public MessageThreadService(MessageThreadRepository threadRepository,
+                                ThreadParticipantRepository participantRepository) {
+        this.threadRepository = threadRepository;
+        this.participantRepository = participantRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isParticipant(Long threadId, Employee employee) {
+        return participantRepository.existsByThreadIdAndEmployeeId(threadId, employee.getId());
+    }
+
+    // Messages must already be written: receiver rows are derived from internal_messages
+    public void recordSend(Long threadId, Employee sender, String subject, List<Long> messageIds, Instant sentAt) {
+        if (messageIds.isEmpty()) return;
+        Long latestId = messageIds.get(messageIds.size() - 1);
+        threadRepository.upsertOnSend(threadId, subject, latestId, sentAt, messageIds.size());
+        participantRepository.upsertReceivers(messageIds);
+        participantRepository.upsertSender(threadId, sender.getId(), latestId, sentAt);
+    }
+
+    public void recordThreadRead(Long threadId, Employee reader) {
+        participantRepository.resetUnread(threadId, reader.getId());
+    }
+
+    // The message row must already be deleted and flushed
+    public void recordDelete(InternalMessage msg) {
+        Long threadId = msg.getThreadId();
+        if (threadId == null) return;
+        // Sender and receiver are the same employee for a message sent to oneself
+        Set<Long> participants = new HashSet<>(List.of(msg.getSender().getId(), msg.getReceiver().getId()));
+        participantRepository.refresh(threadId, participants);
+        participantRepository.deleteInactive(threadId);
+        threadRepository.refresh(threadId);
+        threadRepository.deleteIfEmpty(threadId);
+    }
+}
@@ -0,0 +1,124 @@
+package com.company.hr.service.message;
+
+import com.company.hr.repository.message.InternalMessageBatchRepository;
+import com.company.hr.repository.message.InternalMessageBatchRepository.ReadMark;
+import com.company.hr.repository.message.InternalMessageBatchRepository.UnreadDelta;
+import com.company.hr.service.event.EmployeeEventService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for single-message read marks.
+ *
+ * With write-behind disabled (the default) a mark is written immediately in the caller's
+ * transaction, so the unread count read after it commits is current. With write-behind enabled,
+ * marks are coalesced per message and flushed every app.messages.read-receipts.flush-interval-ms
+ * as one UPDATE on internal_messages plus one on thread_participants; unread counts lag by up to
+ * that interval. Once max-pending marks are queued, further marks are written immediately.
+ *
+ * Only rows that were still unread count towards the unread counters, so a mark racing with a
+ * bulk thread read is never subtracted twice. Pending marks are flushed on shutdown; after that
+ * marks are written immediately.
+ */
+@Component
+public class ReadReceiptBuffer {
+
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private final InternalMessageBatchRepository batchRepository;
+    private final UnreadCounterCache unreadCounters;
+    private final EmployeeEventService eventService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean writeBehind;
+    private final int maxPending;
+    private volatile boolean closed;
+
+    public ReadReceiptBuffer(InternalMessageBatchRepository batchRepository,
+                             UnreadCounterCache unreadCounters,
+                             EmployeeEventService eventService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.messages.read-receipts.write-behind:false}") boolean writeBehind,
+                             @Value("${app.messages.read-receipts.max-pending:5000}") int maxPending) {
+        this.batchRepository = batchRepository;
+        this.unreadCounters = unreadCounters;
+        this.eventService = eventService;
+        this.writeBehind = writeBehind;
+        this.maxPending = maxPending;
+        // Joins the caller's transaction; scheduled flushes get their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void submit(Long messageId, Long receiverId) {
+        if (!writeBehind || closed || pending.size() >= maxPending) {
+            pending.remove(messageId);
+            write(Map.of(messageId, receiverId));
+            return;
+        }
+        pending.put(messageId, receiverId);
+    }
+
+    // Queued by write-behind and not flushed yet
+    public boolean isPending(Long messageId) {
+        return pending.containsKey(messageId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.messages.read-receipts.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) return;
+            Map<Long, Long> batch = new HashMap<>();
+            for (Long messageId : pending.keySet()) {
+                Long receiverId = pending.remove(messageId);
+                if (receiverId != null) {
+                    batch.put(messageId, receiverId);
+                }
+            }
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                // Keep the marks for the next run
+                batch.forEach(pending::putIfAbsent);
+                System.err.println("Read receipt flush failed (" + batch.size() + " pending): " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        flush();
+    }
+
+    private void write(Map<Long, Long> receiverByMessageId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ReadMark> applied = batchRepository.markRead(receiverByMessageId);
+            if (applied.isEmpty()) return;
+
+            Map<Long, Long> perReceiver = new HashMap<>();
+            Map<List<Long>, Integer> perParticipant = new HashMap<>();
+            for (ReadMark mark : applied) {
+                perReceiver.merge(mark.receiverId(), -1L, Long::sum);
+                if (mark.threadId() != null) {
+                    perParticipant.merge(List.of(mark.threadId(), mark.receiverId()), 1, Integer::sum);
+                }
+            }
+            List<UnreadDelta> deltas = new ArrayList<>(perParticipant.size());
+            perParticipant.forEach((key, count) -> deltas.add(new UnreadDelta(key.get(0), key.get(1), count)));
+            batchRepository.decrementUnread(deltas);
+
+            unreadCounters.adjustAfterCommit(perReceiver);
+            eventService.unreadCountChanged(perReceiver.keySet());
+        });
+    }
+}
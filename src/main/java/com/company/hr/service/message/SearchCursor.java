@@ -0,0 +1,31 @@
+package com.company.hr.service.message;
+
+import com.company.hr.web.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for search results, ordered by (rank DESC, id DESC).
+ * The rank is the float4 value PostgreSQL returned, so it round-trips exactly.
+ */
+public record SearchCursor(float rank, Long id) {
+
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('_');
+            return new SearchCursor(Float.parseFloat(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = Float.toString(rank) + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
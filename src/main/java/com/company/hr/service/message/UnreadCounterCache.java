@@ -0,0 +1,177 @@
+package com.company.hr.service.message;
+
+import com.company.hr.dto.system.UnreadCacheStatsResponse;
+import com.company.hr.dto.system.UnreadCacheVerifyResponse;
+import com.company.hr.repository.message.InternalMessageRepository;
+import com.company.hr.repository.message.InternalMessageRepository.UnreadCountRow;
+import com.company.hr.service.event.AfterCommit;
+import com.company.hr.service.event.ClusterEventBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Per-employee unread message counters.
+ *
+ * Counters are adjusted only after the changing transaction commits and are loaded from the
+ * partial index idx_internal_messages_unread on a miss. An adjustment is registered as pending
+ * while its transaction is still open, so a load is returned but not cached when it raced with an
+ * adjustment (detected through a per-employee stamp) or ran while one was pending: its count may
+ * already include a commit whose adjustment has not been applied yet. Changes committed on other
+ * nodes evict the counter via the cluster event bus.
+ *
+ * app.messages.unread-cache.verify-rate re-checks that fraction of hits against the database
+ * and repairs any drift; verifyAll() does the same for every cached counter at once.
+ */
+@Component
+public class UnreadCounterCache {
+
+    private static final int VERIFY_CHUNK = 1000;
+
+    private final Map<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Map<Long, Long> stamps = new ConcurrentHashMap<>();
+    // Adjustments whose transaction has not completed yet
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+
+    private final InternalMessageRepository repository;
+    private final boolean enabled;
+    private final double verifyRate;
+
+    public UnreadCounterCache(InternalMessageRepository repository,
+                              ClusterEventBus eventBus,
+                              @Value("${app.messages.unread-cache.enabled:true}") boolean enabled,
+                              @Value("${app.messages.unread-cache.verify-rate:0}") double verifyRate) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.verifyRate = verifyRate;
+        eventBus.subscribe(ClusterEventBus.RESYNC_TOPIC, event -> clear());
+    }
+
+    public long get(Long employeeId) {
+        if (!enabled) {
+            return repository.countByReceiverIdAndIsReadFalse(employeeId);
+        }
+        AtomicLong counter = counters.get(employeeId);
+        if (counter == null) {
+            misses.increment();
+            return load(employeeId);
+        }
+        hits.increment();
+        long value = counter.get();
+        if (verifyRate > 0 && ThreadLocalRandom.current().nextDouble() < verifyRate) {
+            long actual = repository.countByReceiverIdAndIsReadFalse(employeeId);
+            verifications.increment();
+            if (actual != value) {
+                mismatches.increment();
+                repair(employeeId, actual);
+                return actual;
+            }
+        }
+        return value;
+    }
+
+    // Must be called inside the changing transaction, before it commits
+    public void adjustAfterCommit(Long employeeId, long delta) {
+        if (!enabled || delta == 0) return;
+        adjustAfterCommit(Map.of(employeeId, delta));
+    }
+
+    public void adjustAfterCommit(Map<Long, Long> deltas) {
+        if (!enabled || deltas.isEmpty()) return;
+        Map<Long, Long> copy = Map.copyOf(deltas);
+        copy.keySet().forEach(id -> pending.merge(id, 1, Integer::sum));
+        AfterCommit.onRollback(() -> copy.keySet().forEach(this::release));
+        AfterCommit.run(() -> copy.forEach((id, delta) -> {
+            adjust(id, delta);
+            release(id);
+        }));
+    }
+
+    // For changes committed elsewhere: the next read reloads from the database
+    public void evict(Long employeeId) {
+        counters.compute(employeeId, (k, c) -> {
+            stamps.merge(k, 1L, Long::sum);
+            return null;
+        });
+    }
+
+    public void clear() {
+        new ArrayList<>(counters.keySet()).forEach(this::evict);
+    }
+
+    public UnreadCacheStatsResponse stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return new UnreadCacheStatsResponse(enabled, counters.size(), h, m,
+                h + m == 0 ? 0 : (double) h / (h + m), verifyRate, verifications.sum(), mismatches.sum());
+    }
+
+    // Consistency check of every cached counter, one grouped query per chunk of employees
+    public UnreadCacheVerifyResponse verifyAll() {
+        List<Long> ids = new ArrayList<>(counters.keySet());
+        List<Long> repaired = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += VERIFY_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + VERIFY_CHUNK, ids.size()));
+            Map<Long, Long> actual = repository.countUnreadByReceiverIds(chunk).stream()
+                    .collect(Collectors.toMap(UnreadCountRow::getReceiverId, UnreadCountRow::getUnread));
+            for (Long id : chunk) {
+                AtomicLong counter = counters.get(id);
+                if (counter == null) continue;
+                long expected = actual.getOrDefault(id, 0L);
+                verifications.increment();
+                if (counter.get() != expected) {
+                    mismatches.increment();
+                    repair(id, expected);
+                    repaired.add(id);
+                }
+            }
+        }
+        return new UnreadCacheVerifyResponse(ids.size(), repaired.size(), repaired);
+    }
+
+    private long load(Long employeeId) {
+        Long stamp = stamps.get(employeeId);
+        long count = repository.countByReceiverIdAndIsReadFalse(employeeId);
+        // Install only if no adjustment happened while counting, otherwise the count may be stale
+        AtomicLong installed = counters.compute(employeeId, (k, existing) -> {
+            if (existing != null) return existing;
+            return Objects.equals(stamps.get(k), stamp) && !pending.containsKey(k) ? new AtomicLong(count) : null;
+        });
+        return installed != null ? installed.get() : count;
+    }
+
+    private void adjust(Long employeeId, long delta) {
+        counters.compute(employeeId, (k, counter) -> {
+            if (counter == null) {
+                stamps.merge(k, 1L, Long::sum);
+                return null;
+            }
+            counter.updateAndGet(v -> Math.max(0, v + delta));
+            return counter;
+        });
+    }
+
+    private void release(Long employeeId) {
+        pending.computeIfPresent(employeeId, (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    private void repair(Long employeeId, long actual) {
+        counters.computeIfPresent(employeeId, (k, counter) -> {
+            counter.set(actual);
+            return counter;
+        });
+    }
+}
@@ -3,21 +3,49 @@ package com.company.hr.service.settings;
 import com.company.hr.dto.settings.AppSettingRequest;
 import com.company.hr.entity.settings.AppSetting;
 import com.company.hr.repository.settings.AppSettingRepository;
+import com.company.hr.service.event.AfterCommit;
+import com.company.hr.service.event.ClusterEventBus;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Settings singleton. Readers use current(), an immutable snapshot swapped atomically after each
+ * committed change; other nodes reload theirs when the change is broadcast on the cluster event bus.
+ * A snapshot never replaces one with a newer updatedAt, so a slow reload cannot undo an update.
+ */
 @Service
 @SuppressWarnings("null")
 public class AppSettingService {
 
     public static final long SINGLETON_ID = 1L;
+    public static final String TOPIC = "app-settings";
+
+    private final AtomicReference<AppSettingSnapshot> snapshot = new AtomicReference<>();
 
     private final AppSettingRepository repository;
+    private final ClusterEventBus eventBus;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AppSettingService(AppSettingRepository repository) {
+    public AppSettingService(AppSettingRepository repository,
+                             ClusterEventBus eventBus,
+                             ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.eventBus = eventBus;
+        this.eventPublisher = eventPublisher;
+        eventBus.subscribe(TOPIC, event -> {
+            if (!event.local()) reload();
+        });
+        eventBus.subscribe(ClusterEventBus.RESYNC_TOPIC, event -> reload());
+    }
+
+    public AppSettingSnapshot current() {
+        AppSettingSnapshot s = snapshot.get();
+        return s != null ? s : reload();
     }
 
     @Transactional
@@ -35,14 +63,38 @@ public class AppSettingService {
         if (req.address() != null) s.setAddress(req.address());
         if (req.phone() != null) s.setPhone(req.phone());
         if (req.websiteBaseUrl() != null) s.setWebsiteBaseUrl(trimTrailingSlash(req.websiteBaseUrl()));
-        return Objects.requireNonNull(repository.save(s), "Failed to update settings");
+        AppSetting saved = Objects.requireNonNull(repository.save(s), "Failed to update settings");
+        publishChange(saved);
+        return saved;
     }
 
     @Transactional
     public AppSetting updateLogoPath(String logoPath) {
         AppSetting s = getOrCreate();
         s.setLogoPath(logoPath);
-        return Objects.requireNonNull(repository.save(s), "Failed to update settings logo");
+        AppSetting saved = Objects.requireNonNull(repository.save(s), "Failed to update settings logo");
+        publishChange(saved);
+        return saved;
+    }
+
+    // updatedAt is set by @PreUpdate at flush, so the snapshot is taken after commit
+    private void publishChange(AppSetting saved) {
+        eventBus.publish(TOPIC, Map.of());
+        AfterCommit.run(() -> swap(AppSettingSnapshot.of(saved)));
+    }
+
+    private AppSettingSnapshot reload() {
+        return swap(AppSettingSnapshot.of(getOrCreate()));
+    }
+
+    private AppSettingSnapshot swap(AppSettingSnapshot candidate) {
+        AppSettingSnapshot previous = snapshot.get();
+        AppSettingSnapshot result = snapshot.accumulateAndGet(candidate, (cur, next) ->
+                cur == null || !next.updatedAt().isBefore(cur.updatedAt()) ? next : cur);
+        if (previous != null && result == candidate && !candidate.equals(previous)) {
+            eventPublisher.publishEvent(new AppSettingsChangedEvent(candidate));
+        }
+        return result;
     }
 
     private String trimTrailingSlash(String url) {
@@ -52,4 +104,3 @@ public class AppSettingService {
         return t;
     }
 }
-
@@ -0,0 +1,28 @@
+package com.company.hr.service.settings;
+
+import com.company.hr.entity.settings.AppSetting;
+
+import java.time.Instant;
+
+/**
+ * Immutable copy of the settings row, read without touching the database.
+ */
+public record AppSettingSnapshot(
+        String siteName,
+        String address,
+        String phone,
+        String websiteBaseUrl,
+        String logoPath,
+        Instant updatedAt
+) {
+    static AppSettingSnapshot of(AppSetting s) {
+        return new AppSettingSnapshot(
+                s.getSiteName(),
+                s.getAddress(),
+                s.getPhone(),
+                s.getWebsiteBaseUrl(),
+                s.getLogoPath(),
+                s.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,5 @@
+package com.company.hr.service.settings;
+
+// Published on every node once a new settings snapshot is in place
+public record AppSettingsChangedEvent(AppSettingSnapshot snapshot) {
+}
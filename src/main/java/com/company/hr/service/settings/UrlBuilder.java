@@ -1,6 +1,7 @@
 package com.company.hr.service.settings;
 
-import com.company.hr.entity.settings.AppSetting;
+import com.company.hr.service.storage.FileUrlSigner;
+import com.company.hr.service.storage.ImageDerivativeService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -11,19 +12,49 @@ import java.nio.charset.StandardCharsets;
 public class UrlBuilder {
 
     private final AppSettingService settingService;
+    private final FileUrlSigner signer;
+    private final ImageDerivativeService imageDerivatives;
     private final String serverPort;
 
+    // "<base>/files/" for the settings snapshot it was computed from
+    private volatile FilePrefix filePrefix;
+
     public UrlBuilder(AppSettingService settingService,
+                     FileUrlSigner signer,
+                     ImageDerivativeService imageDerivatives,
                      @Value("${server.port:8080}") String serverPort) {
         this.settingService = settingService;
+        this.signer = signer;
+        this.imageDerivatives = imageDerivatives;
         this.serverPort = serverPort;
     }
 
     public String fileUrl(String storedPath) {
         if (storedPath == null || storedPath.isBlank()) return null;
-        
-        AppSetting s = settingService.getOrCreate();
-        String base = s.getWebsiteBaseUrl();
+        String path = storedPath.replace("\\", "/");
+        String url = filePrefix() + encodePath(path);
+        return signer.isEnabled() ? url + "?" + signer.query(FileUrlSigner.SCOPE_FILE, path) : url;
+    }
+
+    // Resized copy that fits into size x size; the original for files without one
+    public String imageUrl(String storedPath, int size) {
+        if (storedPath == null || storedPath.isBlank()) return null;
+        String derivative = imageDerivatives.derivativePath(storedPath.replace("\\", "/"), size);
+        return fileUrl(derivative != null ? derivative : storedPath);
+    }
+
+    private String filePrefix() {
+        AppSettingSnapshot s = settingService.current();
+        FilePrefix p = filePrefix;
+        if (p == null || p.source() != s) {
+            p = new FilePrefix(s, baseUrl(s) + "/files/");
+            filePrefix = p;
+        }
+        return p.value();
+    }
+
+    private String baseUrl(AppSettingSnapshot s) {
+        String base = s.websiteBaseUrl();
         
         // Fallback ke localhost jika baseUrl belum di-set
         if (base == null || base.isBlank()) {
@@ -35,14 +66,16 @@ public class UrlBuilder {
         while (base.endsWith("/")) {
             base = base.substring(0, base.length() - 1);
         }
-        
-        String encoded = encodePath(storedPath);
-        return base + "/files/" + encoded;
+        return base;
     }
 
     private String encodePath(String path) {
+        // Stored paths are normally plain ASCII (ids, generated names): nothing to encode
+        if (isUrlSafe(path)) {
+            return path;
+        }
         // encode per segment supaya "/" tetap
-        String[] parts = path.replace("\\", "/").split("/");
+        String[] parts = path.split("/");
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < parts.length; i++) {
             if (i > 0) sb.append("/");
@@ -50,5 +83,18 @@ public class UrlBuilder {
         }
         return sb.toString();
     }
-}
 
+    // Characters URLEncoder leaves unchanged, plus the segment separator
+    private static boolean isUrlSafe(String path) {
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            boolean safe = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '/' || c == '.' || c == '-' || c == '_' || c == '*';
+            if (!safe) return false;
+        }
+        return true;
+    }
+
+    private record FilePrefix(AppSettingSnapshot source, String value) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.company.hr.service.storage;
+
+import java.time.Instant;
+
+// Size, modification time and a strong validator of a stored object
+public record BlobInfo(String key, long size, Instant lastModified, String etag) {
+}
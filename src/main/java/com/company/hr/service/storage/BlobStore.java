@@ -0,0 +1,75 @@
+package com.company.hr.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where uploaded files live, addressed by their stored path (the key kept in the database).
+ *
+ * app.storage.backend selects the implementation: local keeps the files under upload-dir on this
+ * node, s3 keeps them in an S3-compatible bucket shared by every replica. Reads of missing keys
+ * throw NoSuchFileException; stat returns null instead.
+ */
+public interface BlobStore {
+
+    int LIST_PAGE_SIZE = 1000;
+
+    void put(String key, InputStream body, long length, String contentType) throws IOException;
+
+    // Stores a finished local file; the local store renames it into place, remote stores upload a copy
+    default void putFile(String key, Path file, String contentType) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            put(key, in, Files.size(file), contentType);
+        }
+    }
+
+    BlobInfo stat(String key) throws IOException;
+
+    InputStream get(String key) throws IOException;
+
+    // Bytes [start, end) of the object
+    InputStream get(String key, long start, long end) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Up to limit objects whose key starts with prefix and that come after startAfter (null: from
+     * the start), in the store's listing order. Passing the last key of a page continues the walk.
+     */
+    List<BlobInfo> list(String prefix, String startAfter, int limit) throws IOException;
+
+    // Every object whose key starts with prefix
+    default List<BlobInfo> list(String prefix) throws IOException {
+        List<BlobInfo> result = new ArrayList<>();
+        String startAfter = null;
+        while (true) {
+            List<BlobInfo> page = list(prefix, startAfter, LIST_PAGE_SIZE);
+            result.addAll(page);
+            if (page.size() < LIST_PAGE_SIZE) return result;
+            startAfter = page.get(page.size() - 1).key();
+        }
+    }
+
+    // Renames an object; remote stores copy it and delete the original
+    default void move(String from, String to) throws IOException {
+        BlobInfo info = stat(from);
+        if (info == null) {
+            throw new NoSuchFileException(from);
+        }
+        put(to, get(from), info.size(), null);
+        delete(from);
+    }
+
+    // URL a client can download the object from directly, null when the app serves files itself
+    URI presignGet(String key, Duration ttl, String contentType, String contentDisposition);
+
+    // The object's file on this node, null for remote stores
+    Path localPath(String key);
+}
@@ -0,0 +1,62 @@
+package com.company.hr.service.storage;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Content type from the first bytes of an upload, for the formats the app accepts.
+ *
+ * Container formats (zip for docx / xlsx, OLE for doc / xls) only confirm that the client's type
+ * is plausible. Anything unrecognised is application/octet-stream whatever the client declared, so a
+ * file claiming to be a pdf or an image without the matching bytes is rejected by type checks and
+ * never served inline.
+ */
+final class ContentSniffer {
+
+    static final int HEAD_BYTES = 16;
+
+    private static final byte[] PDF = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+    private static final byte[] GIF87 = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GIF89 = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP = "WEBP".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ZIP = {'P', 'K', 0x03, 0x04};
+    private static final byte[] OLE = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+
+    private ContentSniffer() {
+    }
+
+    static String sniff(byte[] head, String declared) {
+        if (startsWith(head, PDF, 0)) return MediaType.APPLICATION_PDF_VALUE;
+        if (startsWith(head, JPEG, 0)) return MediaType.IMAGE_JPEG_VALUE;
+        if (startsWith(head, PNG, 0)) return MediaType.IMAGE_PNG_VALUE;
+        if (startsWith(head, GIF87, 0) || startsWith(head, GIF89, 0)) return MediaType.IMAGE_GIF_VALUE;
+        if (startsWith(head, RIFF, 0) && startsWith(head, WEBP, 8)) return "image/webp";
+        String client = normalize(declared);
+        if (startsWith(head, ZIP, 0)) {
+            return client != null && (client.contains("openxmlformats") || client.contains("zip")) ? client : "application/zip";
+        }
+        if (startsWith(head, OLE, 0)) {
+            return client != null && client.startsWith("application/") ? client : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private static String normalize(String declared) {
+        if (declared == null || declared.isBlank()) return null;
+        try {
+            return MediaType.parseMediaType(declared).toString();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean startsWith(byte[] head, byte[] magic, int offset) {
+        return head.length >= offset + magic.length
+                && Arrays.equals(head, offset, offset + magic.length, magic, 0, magic.length);
+    }
+}
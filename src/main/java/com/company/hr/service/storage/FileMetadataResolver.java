@@ -0,0 +1,70 @@
+package com.company.hr.service.storage;
+
+import com.company.hr.repository.document.EmployeeDocumentRepository;
+import com.company.hr.repository.message.InternalMessageRepository;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content type of a stored file, taken from the row that owns it (documents, message attachments)
+ * or from the file extension, never by probing the file itself.
+ *
+ * Stored paths are never reused, so results are cached until the cache is full and then dropped
+ * wholesale.
+ */
+@Service
+public class FileMetadataResolver {
+
+    private static final int MAX_CACHED = 10_000;
+
+    private final Map<String, MediaType> contentTypes = new ConcurrentHashMap<>();
+
+    private final EmployeeDocumentRepository documentRepository;
+    private final InternalMessageRepository messageRepository;
+
+    public FileMetadataResolver(EmployeeDocumentRepository documentRepository,
+                                InternalMessageRepository messageRepository) {
+        this.documentRepository = documentRepository;
+        this.messageRepository = messageRepository;
+    }
+
+    public MediaType contentType(String storedPath) {
+        MediaType cached = contentTypes.get(storedPath);
+        if (cached != null) {
+            return cached;
+        }
+        MediaType resolved = recorded(storedPath)
+                .flatMap(FileMetadataResolver::parse)
+                .or(() -> MediaTypeFactory.getMediaType(storedPath))
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        if (contentTypes.size() >= MAX_CACHED) {
+            contentTypes.clear();
+        }
+        contentTypes.put(storedPath, resolved);
+        return resolved;
+    }
+
+    private Optional<String> recorded(String storedPath) {
+        if (storedPath.startsWith(StorageService.EMPLOYEE_DOCS_DIR + "/")) {
+            return documentRepository.findContentTypeByStoredPath(storedPath);
+        }
+        if (storedPath.startsWith(StorageService.MESSAGE_ATTACHMENTS_DIR + "/")) {
+            return messageRepository.findAttachmentTypeByPath(storedPath);
+        }
+        return Optional.empty();
+    }
+
+    // Upload content types come from the client and may be malformed
+    private static Optional<MediaType> parse(String value) {
+        try {
+            return Optional.of(MediaType.parseMediaType(value));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.company.hr.service.storage;
+
+import com.company.hr.entity.employee.Employee;
+import com.company.hr.entity.storage.FileUpload;
+import com.company.hr.entity.storage.UploadKind;
+import com.company.hr.repository.storage.FileUploadRepository;
+import com.company.hr.web.exception.BadRequestException;
+import com.company.hr.web.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Attachments streamed ahead of the leave request or message that uses them.
+ *
+ * The body is written straight to the attachment's final location; the request that uses it
+ * passes the upload id and claims it, which only removes the bookkeeping row. Uploads that are
+ * never claimed are removed together with their file after app.storage.uploads.unclaimed-hours.
+ */
+@Service
+public class FileUploadService {
+
+    private final FileUploadRepository repository;
+    private final StorageService storageService;
+    private final Duration unclaimedAfter;
+
+    public FileUploadService(FileUploadRepository repository,
+                             StorageService storageService,
+                             @Value("${app.storage.uploads.unclaimed-hours:24}") long unclaimedHours) {
+        this.repository = repository;
+        this.storageService = storageService;
+        this.unclaimedAfter = Duration.ofHours(unclaimedHours);
+    }
+
+    // No surrounding transaction: the connection is only taken once the body has been written
+    public FileUpload receive(Employee employee, UploadKind kind, InputStream body, String filename, String contentType) {
+        if (filename == null || filename.isBlank()) {
+            throw new BadRequestException("filename is required");
+        }
+        StoredUpload stored = switch (kind) {
+            case LEAVE_ATTACHMENT -> storageService.receiveLeaveAttachment(employee.getId(), body, filename, contentType);
+            case MESSAGE_ATTACHMENT -> storageService.receiveMessageAttachment(employee.getId(), body, filename, contentType);
+        };
+        try {
+            return repository.save(new FileUpload(employee, kind, stored.storedPath(), stored.originalFilename(),
+                    stored.contentType(), stored.size(), stored.sha256()));
+        } catch (RuntimeException e) {
+            storageService.delete(stored.storedPath());
+            throw e;
+        }
+    }
+
+    // Joins the caller's transaction, so the upload stays claimable if the caller rolls back
+    @Transactional
+    public StoredUpload claim(Employee employee, Long uploadId, UploadKind kind) {
+        FileUpload upload = repository.findByIdAndEmployeeId(uploadId, employee.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Upload", uploadId));
+        if (upload.getKind() != kind) {
+            throw new BadRequestException("Upload " + uploadId + " is not a " + kind.name().toLowerCase().replace('_', ' '));
+        }
+        // Conditional, so a concurrent claim or cleanup makes this a 404 instead of a stale-state failure
+        if (repository.deleteClaimed(uploadId, employee.getId(), kind.name()) == 0) {
+            throw new ResourceNotFoundException("Upload", uploadId);
+        }
+        return new StoredUpload(upload.getStoredPath(), upload.getOriginalFilename(), upload.getContentType(),
+                upload.getSize(), upload.getSha256());
+    }
+
+    @Scheduled(cron = "${app.storage.uploads.cleanup-cron:0 40 * * * *}")
+    public void removeUnclaimed() {
+        Instant cutoff = Instant.now().minus(unclaimedAfter);
+        try {
+            for (FileUpload upload : repository.findTop500ByCreatedAtBeforeOrderByCreatedAt(cutoff)) {
+                if (repository.deleteUnclaimed(upload.getId()) == 1) {
+                    storageService.delete(upload.getStoredPath());
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Unclaimed upload cleanup failed: " + e.getMessage());
+        }
+    }
+}
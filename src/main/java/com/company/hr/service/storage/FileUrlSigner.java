@@ -0,0 +1,100 @@
+package com.company.hr.service.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * HMAC-SHA256 signatures for /files URLs.
+ *
+ * A signature covers a scope, the stored path and the expiry. Expiries are rounded to the end of
+ * the window after the current one, so every URL issued for a file during one window is the same
+ * and can be cached by nginx or a CDN; a URL stays valid for one to two windows. Checking a
+ * signature needs no database or user lookup.
+ */
+@Component
+public class FileUrlSigner {
+
+    public static final String SCOPE_FILE = "file";
+    public static final String EXPIRES_PARAM = "exp";
+    public static final String SIGNATURE_PARAM = "sig";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final SecretKeySpec key;
+    private final boolean enabled;
+    private final long windowSeconds;
+
+    public FileUrlSigner(@Value("${app.storage.signed-urls.enabled:true}") boolean enabled,
+                         @Value("${app.storage.signed-urls.secret:}") String secret,
+                         @Value("${app.jwt.secret}") String jwtSecret,
+                         @Value("${app.storage.signed-urls.window-minutes:60}") long windowMinutes) {
+        this.enabled = enabled;
+        this.windowSeconds = Math.max(1, windowMinutes) * 60;
+        // Without a dedicated secret, derive one so the JWT key is not used for two purposes
+        byte[] keyBytes = secret == null || secret.isBlank()
+                ? sha256("file-url:" + jwtSecret)
+                : secret.getBytes(StandardCharsets.UTF_8);
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Changes when newly issued URLs change; constant while signing is off
+    public long window() {
+        return enabled ? Instant.now().getEpochSecond() / windowSeconds : 0;
+    }
+
+    // Query string (without "?") granting access to path under scope
+    public String query(String scope, String path) {
+        long expires = (Instant.now().getEpochSecond() / windowSeconds + 2) * windowSeconds;
+        String signature = Base64.getUrlEncoder().withoutPadding().encodeToString(sign(scope, path, expires));
+        return EXPIRES_PARAM + "=" + expires + "&" + SIGNATURE_PARAM + "=" + signature;
+    }
+
+    // Expiry in epoch seconds when the signature is valid and not expired, otherwise null
+    public Long verify(String scope, String path, String expires, String signature) {
+        if (expires == null || signature == null) return null;
+        long expiresAt;
+        byte[] given;
+        try {
+            expiresAt = Long.parseLong(expires);
+            given = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (expiresAt <= Instant.now().getEpochSecond()) return null;
+        return MessageDigest.isEqual(sign(scope, path, expiresAt), given) ? expiresAt : null;
+    }
+
+    private byte[] sign(String scope, String path, long expires) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] full = mac.doFinal((scope + "\n" + path + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(full, SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign file URL", e);
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.company.hr.service.storage;
+
+import com.company.hr.service.event.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resized copies of profile photos and logos for lists and headers.
+ *
+ * A derivative lives at thumbs/{size}/{stored path}.{jpg|png}. Its name is derived from the
+ * source, so nothing is stored in the database and UrlBuilder can link it directly. Derivatives are
+ * generated on a small bounded executor after the upload commits. One that does not exist yet
+ * (older uploads, a full queue) is queued when it is first requested and the original is served
+ * until then. Logos keep their transparency as PNG; photos become JPEG.
+ */
+@Service
+public class ImageDerivativeService {
+
+    public static final String DIR = "thumbs";
+    public static final int SMALL = 64;
+    public static final int MEDIUM = 256;
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    private final BlobStore blobStore;
+    private final Set<Integer> sizes;
+    private final int largest;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    public ImageDerivativeService(BlobStore blobStore,
+                                  @Value("${app.storage.thumbnails.sizes:64,256}") List<Integer> sizes,
+                                  @Value("${app.storage.thumbnails.threads:1}") int threads,
+                                  @Value("${app.storage.thumbnails.queue-capacity:100}") int queueCapacity) {
+        this.blobStore = blobStore;
+        this.sizes = Set.copyOf(sizes);
+        this.largest = Collections.max(sizes);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "image-derivatives-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public static boolean isDerivable(String storedPath) {
+        String name = storedPath.toLowerCase(Locale.ROOT);
+        return name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".png");
+    }
+
+    // Null when the file has no derivative of that size
+    public String derivativePath(String storedPath, int size) {
+        if (!sizes.contains(size) || !isDerivable(storedPath)) return null;
+        return DIR + "/" + size + "/" + storedPath + "." + format(storedPath);
+    }
+
+    // Stored path a derivative path was made from, null for anything else
+    public String sourceOf(String derivativePath) {
+        String prefix = DIR + "/";
+        if (!derivativePath.startsWith(prefix)) return null;
+        String rest = derivativePath.substring(prefix.length());
+        int slash = rest.indexOf('/');
+        int dot = rest.lastIndexOf('.');
+        if (slash <= 0 || dot <= slash) return null;
+        try {
+            int size = Integer.parseInt(rest.substring(0, slash));
+            String source = rest.substring(slash + 1, dot);
+            return derivativePath.equals(derivativePath(source, size)) ? source : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public void generateAfterCommit(String storedPath) {
+        AfterCommit.run(() -> submit(storedPath));
+    }
+
+    public void submit(String storedPath) {
+        if (storedPath == null || !isDerivable(storedPath) || !queued.add(storedPath)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(storedPath);
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Image derivatives failed for " + storedPath + ": " + e.getMessage());
+                } finally {
+                    queued.remove(storedPath);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full: retried when the derivative is requested
+            queued.remove(storedPath);
+        }
+    }
+
+    public void delete(String storedPath) {
+        if (storedPath == null) return;
+        for (int size : sizes) {
+            String path = derivativePath(storedPath, size);
+            if (path == null) continue;
+            try {
+                blobStore.delete(path);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Failed to delete image derivative " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void generate(String storedPath) throws IOException {
+        BufferedImage image;
+        try (InputStream in = blobStore.get(storedPath)) {
+            image = read(in);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        String format = format(storedPath);
+        int orientation = format.equals("jpg") ? exifOrientation(storedPath) : 1;
+        for (int size : sizes) {
+            BufferedImage scaled = orient(scale(image, size, format.equals("png")), orientation);
+            // A few KB each, so encoded in memory and written in one put
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            write(scaled, format, encoded);
+            blobStore.put(derivativePath(storedPath, size), new ByteArrayInputStream(encoded.toByteArray()),
+                    encoded.size(), format.equals("png") ? "image/png" : "image/jpeg");
+        }
+    }
+
+    private static String format(String storedPath) {
+        return storedPath.startsWith(StorageService.LOGOS_DIR + "/") ? "png" : "jpg";
+    }
+
+    // Decodes with subsampling to about twice the largest size, so camera originals stay small in memory
+    private BufferedImage read(InputStream source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = in == null ? Collections.emptyIterator() : ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image too large (" + width + "x" + height + ")");
+                }
+                int factor = Math.max(1, Math.max(width, height) / (largest * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits into size x size without upscaling, halving first for a smoother result
+    private static BufferedImage scale(BufferedImage image, int size, boolean alpha) {
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height, null, alpha);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> null;
+        };
+        if (transform == null) return image;
+        return orientation >= 5
+                ? draw(image, h, w, transform, image.getColorModel().hasAlpha())
+                : draw(image, w, h, transform, image.getColorModel().hasAlpha());
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, AffineTransform transform, boolean alpha) {
+        BufferedImage target = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            if (!alpha) {
+                // JPEG has no transparency: flatten onto white
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+            }
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (transform != null) {
+                g.drawImage(source, transform, null);
+            } else {
+                g.drawImage(source, 0, 0, width, height, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static void write(BufferedImage image, String format, OutputStream target) throws IOException {
+        if (format.equals("png")) {
+            ImageIO.write(image, "png", target);
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // EXIF orientation tag of a JPEG (1 when absent); ImageIO ignores it, browsers do not
+    private int exifOrientation(String storedPath) {
+        try (InputStream raw = blobStore.get(storedPath);
+             DataInputStream in = new DataInputStream(raw)) {
+            if (in.readUnsignedShort() != 0xFFD8) return 1;
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) return 1;
+                int length = in.readUnsignedShort() - 2;
+                if (marker != 0xFFE1) {
+                    in.skipNBytes(length);
+                    continue;
+                }
+                byte[] segment = in.readNBytes(length);
+                if (length < 14 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i' || segment[3] != 'f') {
+                    continue;
+                }
+                return tiffOrientation(segment, 6);
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    private static int tiffOrientation(byte[] b, int tiff) {
+        boolean little = b[tiff] == 'I';
+        int ifd = tiff + readInt(b, tiff + 4, little);
+        int entries = readShort(b, ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (readShort(b, entry, little) == 0x0112) {
+                int value = readShort(b, entry + 8, little);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] b, int offset, boolean little) {
+        int b0 = b[offset] & 0xFF;
+        int b1 = b[offset + 1] & 0xFF;
+        return little ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] b, int offset, boolean little) {
+        int first = readShort(b, offset, little);
+        int second = readShort(b, offset + 2, little);
+        return little ? (second << 16) | first : (first << 16) | second;
+    }
+}
@@ -0,0 +1,223 @@
+package com.company.hr.service.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Files under upload-dir, one per key at {upload-dir}/{key}.
+ *
+ * Keys are already spread over one directory per area and employee, so the key doubles as the
+ * relative path; nginx (X-Accel-Redirect) and existing uploads rely on that layout. Writes go to
+ * a temporary sibling and are renamed into place, so readers never see a partial file.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+
+    public LocalBlobStore(@Value("${app.storage.upload-dir:uploads}") String uploadDir) throws IOException {
+        this.root = Path.of(uploadDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public void put(String key, InputStream body, long length, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = tempFor(target);
+        try {
+            try (InputStream in = body; OutputStream out = Files.newOutputStream(temp)) {
+                in.transferTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void putFile(String key, Path file, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Different file system (e.g. a temp dir): copy next to the target first
+            Path temp = tempFor(target);
+            try {
+                Files.copy(file, temp);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            Files.delete(file);
+        }
+    }
+
+    @Override
+    public BlobInfo stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return attributes.isRegularFile() ? info(key, attributes) : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream get(String key, long start, long end) throws IOException {
+        InputStream in = Files.newInputStream(resolve(key));
+        try {
+            in.skipNBytes(start);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new LimitedInputStream(in, end - start);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    // Depth-first over sorted directory entries; subtrees before startAfter are not read
+    @Override
+    public List<BlobInfo> list(String prefix, String startAfter, int limit) throws IOException {
+        List<BlobInfo> result = new ArrayList<>();
+        walk(root, "", startAfter == null ? null : startAfter.split("/"), 0, prefix, limit, result);
+        return result;
+    }
+
+    @Override
+    public void move(String from, String to) throws IOException {
+        putFile(to, resolve(from), null);
+    }
+
+    @Override
+    public URI presignGet(String key, Duration ttl, String contentType, String contentDisposition) {
+        return null;
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return resolve(key);
+    }
+
+    private void walk(Path dir, String dirKey, String[] cursor, int depth, String prefix, int limit,
+                      List<BlobInfo> out) throws IOException {
+        List<Path> children;
+        try (Stream<Path> entries = Files.list(dir)) {
+            children = entries.sorted(Comparator.comparing(p -> p.getFileName().toString())).toList();
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        for (Path child : children) {
+            if (out.size() >= limit) return;
+            String name = child.getFileName().toString();
+            String key = dirKey.isEmpty() ? name : dirKey + "/" + name;
+            if (!key.startsWith(prefix) && !prefix.startsWith(key + "/")) continue;
+            // Still on the path to startAfter: earlier names are done, the same name is entered again
+            String[] childCursor = null;
+            if (cursor != null && depth < cursor.length) {
+                int cmp = name.compareTo(cursor[depth]);
+                if (cmp < 0) continue;
+                if (cmp == 0) childCursor = cursor;
+            }
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            if (attributes.isDirectory()) {
+                walk(child, key, childCursor, depth + 1, prefix, limit, out);
+            } else if (attributes.isRegularFile() && childCursor == null && key.startsWith(prefix)) {
+                out.add(info(key, attributes));
+            }
+        }
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+
+    private static Path tempFor(Path target) {
+        return target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+    }
+
+    private static BlobInfo info(String key, BasicFileAttributes attributes) {
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        return new BlobInfo(key, size, attributes.lastModifiedTime().toInstant(), etag);
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
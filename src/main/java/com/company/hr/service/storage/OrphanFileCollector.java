@@ -0,0 +1,265 @@
+package com.company.hr.service.storage;
+
+import com.company.hr.dto.system.StorageGcReportResponse;
+import com.company.hr.dto.system.StorageGcStatusResponse;
+import com.company.hr.repository.storage.StoredFileReferenceRepository;
+import com.company.hr.web.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mark-and-sweep for stored files that no row points to any more.
+ *
+ * Each scheduled run continues the walk over the BlobStore where the previous run stopped and
+ * checks up to app.storage.gc.files-per-run files, in batches of one query each, against every
+ * column that holds a stored path. Thumbnails count as referenced while their source is. Files
+ * younger than min-age-hours are left alone, because an upload is stored before its row commits.
+ *
+ * An orphan is moved to quarantine/{yyyyMMdd}/{key} and deleted at the start of a later pass once
+ * it has been there for quarantine-days, so a wrong call can be undone by moving the file back.
+ * In dry-run mode nothing is moved or deleted and the report shows what would have been.
+ *
+ * Runs take a session-level advisory lock, so only one node collects at a time; no transaction is
+ * held open while the store is walked. The walk position is kept in memory; after a restart the
+ * next pass starts from the beginning.
+ */
+@Service
+public class OrphanFileCollector {
+
+    public static final String QUARANTINE_DIR = "quarantine";
+
+    private static final long GC_LOCK = 0x6872_6763_6f6c_6c65L;
+    private static final int BATCH_SIZE = 500;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    // Message archives and the quarantine itself are not uploads
+    private static final Set<String> SKIPPED_DIRS = Set.of("archive/", QUARANTINE_DIR + "/");
+
+    private final BlobStore blobStore;
+    private final StoredFileReferenceRepository referenceRepository;
+    private final ImageDerivativeService imageDerivatives;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final boolean dryRun;
+    private final int filesPerRun;
+    private final Duration minAge;
+    private final int quarantineDays;
+
+    private Pass current;
+    private String cursor;
+    private volatile StorageGcReportResponse lastReport;
+
+    public OrphanFileCollector(BlobStore blobStore,
+                               StoredFileReferenceRepository referenceRepository,
+                               ImageDerivativeService imageDerivatives,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${app.storage.gc.enabled:true}") boolean enabled,
+                               @Value("${app.storage.gc.dry-run:true}") boolean dryRun,
+                               @Value("${app.storage.gc.files-per-run:5000}") int filesPerRun,
+                               @Value("${app.storage.gc.min-age-hours:24}") long minAgeHours,
+                               @Value("${app.storage.gc.quarantine-days:7}") int quarantineDays) {
+        this.blobStore = blobStore;
+        this.referenceRepository = referenceRepository;
+        this.imageDerivatives = imageDerivatives;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.dryRun = dryRun;
+        this.filesPerRun = filesPerRun;
+        this.minAge = Duration.ofHours(minAgeHours);
+        this.quarantineDays = quarantineDays;
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.gc.interval-ms:600000}", initialDelayString = "${app.storage.gc.initial-delay-ms:300000}")
+    public void runScheduled() {
+        if (!enabled) return;
+        try {
+            withLock(this::step);
+        } catch (RuntimeException e) {
+            System.err.println("Orphan file collection failed: " + e.getMessage());
+        }
+    }
+
+    // A complete pass now, independent of the scheduled walk
+    public StorageGcReportResponse runFullPass(boolean dryRun) {
+        Pass pass = new Pass(dryRun);
+        boolean ran = withLock(() -> {
+            purgeQuarantine(pass);
+            String after = null;
+            do {
+                after = scan(pass, after, Integer.MAX_VALUE);
+            } while (after != null);
+        });
+        if (!ran) {
+            throw new ConflictException("Orphan file collection is already running");
+        }
+        return pass.report(Instant.now());
+    }
+
+    public StorageGcStatusResponse status() {
+        Pass pass = current;
+        return new StorageGcStatusResponse(enabled, dryRun, lastReport, pass == null ? null : pass.report(null));
+    }
+
+    private synchronized void step() {
+        if (current == null) {
+            current = new Pass(dryRun);
+            cursor = null;
+            purgeQuarantine(current);
+        }
+        cursor = scan(current, cursor, filesPerRun);
+        if (cursor == null) {
+            lastReport = current.report(Instant.now());
+            current = null;
+        }
+    }
+
+    // Checks up to maxFiles files after startAfter; returns the last key, or null at the end of the store
+    private String scan(Pass pass, String startAfter, int maxFiles) {
+        String after = startAfter;
+        int seen = 0;
+        while (seen < maxFiles) {
+            List<BlobInfo> page = list("", after, BATCH_SIZE);
+            if (page.isEmpty()) return null;
+            collect(pass, page);
+            seen += page.size();
+            after = page.get(page.size() - 1).key();
+            if (page.size() < BATCH_SIZE) return null;
+        }
+        return after;
+    }
+
+    private void collect(Pass pass, List<BlobInfo> page) {
+        Instant youngest = Instant.now().minus(minAge);
+        List<BlobInfo> candidates = new ArrayList<>();
+        List<String> lookups = new ArrayList<>();
+        for (BlobInfo blob : page) {
+            if (SKIPPED_DIRS.stream().anyMatch(blob.key()::startsWith)) continue;
+            pass.scanned++;
+            if (blob.lastModified().isAfter(youngest)) continue;
+            candidates.add(blob);
+            String owner = ownerOf(blob.key());
+            if (owner != null) lookups.add(owner);
+        }
+        if (candidates.isEmpty()) return;
+        Set<String> referenced = referenceRepository.findReferenced(lookups);
+        String quarantine = QUARANTINE_DIR + "/" + DAY.format(Instant.now()) + "/";
+        for (BlobInfo blob : candidates) {
+            String owner = ownerOf(blob.key());
+            if (owner != null && referenced.contains(owner)) continue;
+            pass.orphans++;
+            pass.orphanBytes += blob.size();
+            if (pass.dryRun) continue;
+            try {
+                blobStore.move(blob.key(), quarantine + blob.key());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Failed to quarantine orphan " + blob.key() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // The stored path a row would reference for this file: a thumbnail belongs to its source
+    private String ownerOf(String key) {
+        return key.startsWith(ImageDerivativeService.DIR + "/") ? imageDerivatives.sourceOf(key) : key;
+    }
+
+    private void purgeQuarantine(Pass pass) {
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(quarantineDays);
+        String after = null;
+        List<BlobInfo> page;
+        do {
+            page = list(QUARANTINE_DIR + "/", after, BATCH_SIZE);
+            for (BlobInfo blob : page) {
+                LocalDate day = quarantineDay(blob.key());
+                if (day == null || !day.isBefore(cutoff)) continue;
+                pass.purged++;
+                pass.reclaimedBytes += blob.size();
+                if (pass.dryRun) continue;
+                try {
+                    blobStore.delete(blob.key());
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Failed to delete quarantined file " + blob.key() + ": " + e.getMessage());
+                }
+            }
+            after = page.isEmpty() ? null : page.get(page.size() - 1).key();
+        } while (page.size() == BATCH_SIZE);
+    }
+
+    private static LocalDate quarantineDay(String key) {
+        String[] parts = key.split("/", 3);
+        if (parts.length < 3) return null;
+        try {
+            return LocalDate.parse(parts[1], DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private List<BlobInfo> list(String prefix, String startAfter, int limit) {
+        try {
+            return blobStore.list(prefix, startAfter, limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Session-level lock on a connection of its own, held across the walk without a transaction;
+    // each reference lookup borrows another connection for a single statement
+    private boolean withLock(Runnable work) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            if (!advisoryLock(con, "SELECT pg_try_advisory_lock(?)")) return false;
+            try {
+                work.run();
+                return true;
+            } finally {
+                advisoryLock(con, "SELECT pg_advisory_unlock(?)");
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private static boolean advisoryLock(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, GC_LOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static final class Pass {
+
+        final boolean dryRun;
+        final Instant startedAt = Instant.now();
+        long scanned;
+        long orphans;
+        long orphanBytes;
+        long purged;
+        long reclaimedBytes;
+
+        Pass(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        StorageGcReportResponse report(Instant finishedAt) {
+            return new StorageGcReportResponse(dryRun, startedAt, finishedAt, scanned, orphans, orphanBytes, purged, reclaimedBytes);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.company.hr.service.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Objects in an S3-compatible bucket (AWS S3, MinIO, ...), signed with SigV4 over the JDK HTTP client.
+ *
+ * Bodies are streamed with a known length and sent as UNSIGNED-PAYLOAD, so nothing is buffered in
+ * memory. Presigned GET URLs are built for app.storage.s3.public-endpoint when set, because the
+ * browser may reach the bucket under a different host than the app does.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3")
+public class S3BlobStore implements BlobStore {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter SCOPE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final long MAX_PRESIGN_SECONDS = Duration.ofDays(7).toSeconds();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final URI endpoint;
+    private final URI publicEndpoint;
+    private final String region;
+    private final String bucket;
+    private final String accessKey;
+    private final String secretKey;
+    private final boolean pathStyle;
+
+    public S3BlobStore(@Value("${app.storage.s3.endpoint}") String endpoint,
+                       @Value("${app.storage.s3.public-endpoint:}") String publicEndpoint,
+                       @Value("${app.storage.s3.region:us-east-1}") String region,
+                       @Value("${app.storage.s3.bucket}") String bucket,
+                       @Value("${app.storage.s3.access-key}") String accessKey,
+                       @Value("${app.storage.s3.secret-key}") String secretKey,
+                       @Value("${app.storage.s3.path-style:true}") boolean pathStyle) {
+        if (bucket.isBlank() || accessKey.isBlank() || secretKey.isBlank()) {
+            throw new IllegalStateException("app.storage.s3.bucket, access-key and secret-key are required for the s3 backend");
+        }
+        this.endpoint = URI.create(endpoint);
+        this.publicEndpoint = publicEndpoint.isBlank() ? this.endpoint : URI.create(publicEndpoint);
+        this.region = region;
+        this.bucket = bucket;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.pathStyle = pathStyle;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @Override
+    public void put(String key, InputStream body, long length, String contentType) throws IOException {
+        try (InputStream in = body) {
+            URI uri = uri(endpoint, key, Map.of());
+            HttpRequest.BodyPublisher publisher = length > 0
+                    ? HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> in), length)
+                    : HttpRequest.BodyPublishers.noBody();
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri).PUT(publisher);
+            if (contentType != null) {
+                request.header("Content-Type", contentType);
+            }
+            HttpResponse<Void> response = send(signed(request, "PUT", uri, UNSIGNED_PAYLOAD), HttpResponse.BodyHandlers.discarding());
+            expect(response, "PUT", key, 200);
+        }
+    }
+
+    @Override
+    public BlobInfo stat(String key) throws IOException {
+        URI uri = uri(endpoint, key, Map.of());
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).method("HEAD", HttpRequest.BodyPublishers.noBody());
+        HttpResponse<Void> response = send(signed(request, "HEAD", uri, EMPTY_SHA256), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) return null;
+        expect(response, "HEAD", key, 200);
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(0);
+        Instant lastModified = response.headers().firstValue("Last-Modified")
+                .map(v -> ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+                .orElse(Instant.EPOCH);
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        return new BlobInfo(key, size, lastModified, etag);
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        URI uri = uri(endpoint, key, Map.of());
+        return open(key, HttpRequest.newBuilder(uri).GET(), uri);
+    }
+
+    @Override
+    public InputStream get(String key, long start, long end) throws IOException {
+        if (end <= start) return InputStream.nullInputStream();
+        URI uri = uri(endpoint, key, Map.of());
+        return open(key, HttpRequest.newBuilder(uri).GET().header("Range", "bytes=" + start + "-" + (end - 1)), uri);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        URI uri = uri(endpoint, key, Map.of());
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).DELETE();
+        HttpResponse<Void> response = send(signed(request, "DELETE", uri, EMPTY_SHA256), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) return;
+        expect(response, "DELETE", key, 204, 200);
+    }
+
+    @Override
+    public List<BlobInfo> list(String prefix, String startAfter, int limit) throws IOException {
+        Map<String, String> query = new TreeMap<>();
+        query.put("list-type", "2");
+        query.put("max-keys", Integer.toString(Math.min(limit, 1000)));
+        query.put("prefix", prefix);
+        if (startAfter != null) {
+            query.put("start-after", startAfter);
+        }
+        URI uri = uri(endpoint, null, query);
+        HttpResponse<InputStream> response = send(signed(HttpRequest.newBuilder(uri).GET(), "GET", uri, EMPTY_SHA256),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("S3 list " + prefix + " failed with HTTP " + response.statusCode());
+            }
+            NodeList contents = parse(body).getDocumentElement().getElementsByTagName("Contents");
+            List<BlobInfo> result = new ArrayList<>(contents.getLength());
+            for (int i = 0; i < contents.getLength(); i++) {
+                Element item = (Element) contents.item(i);
+                result.add(new BlobInfo(text(item, "Key"), Long.parseLong(text(item, "Size")),
+                        Instant.parse(text(item, "LastModified")), text(item, "ETag")));
+            }
+            return result;
+        }
+    }
+
+    // Server-side copy, then delete
+    @Override
+    public void move(String from, String to) throws IOException {
+        URI uri = uri(endpoint, to, Map.of());
+        String source = "/" + bucket + "/" + encodePath(from);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("x-amz-copy-source", source);
+        HttpResponse<String> response = send(signed(request, "PUT", uri, EMPTY_SHA256, Map.of("x-amz-copy-source", source)),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            throw new NoSuchFileException(from);
+        }
+        // A failed copy can still answer 200 with an <Error> body
+        if (response.statusCode() != 200 || response.body().contains("<Error>")) {
+            throw new IOException("S3 copy " + from + " failed with HTTP " + response.statusCode());
+        }
+        delete(from);
+    }
+
+    @Override
+    public URI presignGet(String key, Duration ttl, String contentType, String contentDisposition) {
+        Instant now = Instant.now();
+        Map<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", accessKey + "/" + scope(now));
+        query.put("X-Amz-Date", AMZ_DATE.format(now));
+        query.put("X-Amz-Expires", Long.toString(Math.min(Math.max(ttl.toSeconds(), 1), MAX_PRESIGN_SECONDS)));
+        query.put("X-Amz-SignedHeaders", "host");
+        if (contentType != null) {
+            query.put("response-content-type", contentType);
+        }
+        if (contentDisposition != null) {
+            query.put("response-content-disposition", contentDisposition);
+        }
+        URI uri = uri(publicEndpoint, key, query);
+        String canonicalRequest = "GET\n" + uri.getRawPath() + "\n" + uri.getRawQuery() + "\n"
+                + "host:" + host(uri) + "\n\nhost\n" + UNSIGNED_PAYLOAD;
+        return URI.create(uri + "&X-Amz-Signature=" + signature(now, canonicalRequest));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    private InputStream open(String key, HttpRequest.Builder request, URI uri) throws IOException {
+        HttpResponse<InputStream> response = send(signed(request, "GET", uri, EMPTY_SHA256), HttpResponse.BodyHandlers.ofInputStream());
+        int status = response.statusCode();
+        if (status == 200 || status == 206) {
+            return response.body();
+        }
+        response.body().close();
+        if (status == 404) {
+            throw new NoSuchFileException(key);
+        }
+        throw new IOException("S3 GET " + key + " failed with HTTP " + status);
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return http.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("S3 request interrupted");
+        }
+    }
+
+    private static void expect(HttpResponse<?> response, String method, String key, int... statuses) throws IOException {
+        for (int status : statuses) {
+            if (response.statusCode() == status) return;
+        }
+        throw new IOException("S3 " + method + " " + key + " failed with HTTP " + response.statusCode());
+    }
+
+    // Authorization header for a request whose body hash is payloadHash (signed: host and x-amz-*)
+    private HttpRequest signed(HttpRequest.Builder request, String method, URI uri, String payloadHash) {
+        return signed(request, method, uri, payloadHash, Map.of());
+    }
+
+    // amzHeaders: x-amz-* headers already set on the request, which must be signed too
+    private HttpRequest signed(HttpRequest.Builder request, String method, URI uri, String payloadHash,
+                               Map<String, String> amzHeaders) {
+        Instant now = Instant.now();
+        String amzDate = AMZ_DATE.format(now);
+        Map<String, String> headers = new TreeMap<>(amzHeaders);
+        headers.put("host", host(uri));
+        headers.put("x-amz-content-sha256", payloadHash);
+        headers.put("x-amz-date", amzDate);
+        String signedHeaders = String.join(";", headers.keySet());
+        String canonicalHeaders = headers.entrySet().stream()
+                .map(e -> e.getKey() + ":" + e.getValue() + "\n")
+                .collect(Collectors.joining());
+        String canonicalRequest = method + "\n" + uri.getRawPath() + "\n" + (uri.getRawQuery() == null ? "" : uri.getRawQuery())
+                + "\n" + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+        String authorization = ALGORITHM + " Credential=" + accessKey + "/" + scope(now)
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature(now, canonicalRequest);
+        return request.timeout(REQUEST_TIMEOUT)
+                .header("x-amz-content-sha256", payloadHash)
+                .header("x-amz-date", amzDate)
+                .header("Authorization", authorization)
+                .build();
+    }
+
+    private String scope(Instant now) {
+        return SCOPE_DATE.format(now) + "/" + region + "/s3/aws4_request";
+    }
+
+    private String signature(Instant now, String canonicalRequest) {
+        try {
+            String stringToSign = ALGORITHM + "\n" + AMZ_DATE.format(now) + "\n" + scope(now) + "\n"
+                    + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+            byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), SCOPE_DATE.format(now));
+            key = hmac(key, region);
+            key = hmac(key, "s3");
+            key = hmac(key, "aws4_request");
+            return HexFormat.of().formatHex(hmac(key, stringToSign));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Object (or bucket, for a null key) URI; query parameters must already be sorted
+    private URI uri(URI base, String key, Map<String, String> query) {
+        String host = pathStyle ? base.getRawAuthority() : bucket + "." + base.getRawAuthority();
+        String basePath = base.getRawPath() == null ? "" : base.getRawPath().replaceAll("/+$", "");
+        StringBuilder path = new StringBuilder(basePath);
+        if (pathStyle) {
+            path.append('/').append(encode(bucket));
+        }
+        path.append('/');
+        if (key != null) {
+            path.append(encodePath(key));
+        }
+        String rawQuery = query.entrySet().stream()
+                .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                .collect(Collectors.joining("&"));
+        return URI.create(base.getScheme() + "://" + host + path + (rawQuery.isEmpty() ? "" : "?" + rawQuery));
+    }
+
+    // Host header as the JDK client sends it: the port only when it is not the scheme's default
+    private static String host(URI uri) {
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+                || ("http".equals(uri.getScheme()) && port == 80)
+                || ("https".equals(uri.getScheme()) && port == 443);
+        return defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+    }
+
+    private static String encodePath(String key) {
+        return Arrays.stream(key.split("/", -1))
+                .map(S3BlobStore::encode)
+                .collect(Collectors.joining("/"));
+    }
+
+    // RFC 3986 unreserved characters stay as they are, as SigV4 requires
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8)
+                .replace("+", "%20")
+                .replace("*", "%2A")
+                .replace("%7E", "~");
+    }
+
+    private static Document parse(InputStream body) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder().parse(body);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Invalid S3 list response", e);
+        }
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() == 0 ? null : nodes.item(0).getTextContent();
+    }
+}
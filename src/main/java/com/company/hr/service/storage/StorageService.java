@@ -1,61 +1,324 @@
 package com.company.hr.service.storage;
 
+import com.company.hr.web.exception.BadRequestException;
+import com.company.hr.web.exception.ConflictException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
 
+/**
+ * Stores uploads in the BlobStore as {area}/{employee id}/{uuid}.{ext}.
+ *
+ * Multipart files and raw request bodies go through the same single pass: the bytes are written
+ * to a local .part file under upload-dir while the SHA-256 is computed, the leading bytes are kept
+ * for content sniffing and the size limit is enforced, then the file is handed to the BlobStore
+ * (renamed into place by the local store, uploaded by remote ones).
+ *
+ * Resumable uploads keep their .part file on local disk until completed, so with several replicas
+ * the proxy must route an upload's requests to one node; elsewhere they get 409 Conflict.
+ */
 @Service
 public class StorageService {
 
+    public static final String EMPLOYEE_DOCS_DIR = "employee-docs";
+    public static final String LEAVE_ATTACHMENTS_DIR = "leave-attachments";
+    public static final String MESSAGE_ATTACHMENTS_DIR = "message-attachments";
+    public static final String LOGOS_DIR = "logos";
+    public static final String PARTIAL_SUFFIX = ".part";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Resumable .part files live on the node's local disk, also with a remote BlobStore
+    private static final String PARTIAL_ELSEWHERE =
+            "Upload data is not on this server; a resumable upload must continue on the server that started it";
+
+    private final BlobStore blobStore;
+    // Local staging area for .part files; also the file root of the local BlobStore
     private final Path baseDir;
+    private final long maxFileSize;
 
-    public StorageService(@Value("${app.storage.upload-dir:uploads}") String baseDir) throws IOException {
+    public StorageService(BlobStore blobStore,
+                          @Value("${app.storage.upload-dir:uploads}") String baseDir,
+                          @Value("${app.storage.max-file-size:${spring.servlet.multipart.max-file-size:10MB}}") DataSize maxFileSize) throws IOException {
+        this.blobStore = blobStore;
         this.baseDir = Path.of(baseDir);
+        this.maxFileSize = maxFileSize.toBytes();
         Files.createDirectories(this.baseDir);
     }
 
-    public String storeEmployeeDocument(Long employeeId, MultipartFile file) {
-        return store(file, "employee-docs/" + employeeId);
+    // Rejects a raw upload by its Content-Length before any byte is read (-1 when unknown)
+    public void checkDeclaredSize(long contentLength) {
+        if (contentLength > maxFileSize) {
+            throw new BadRequestException("File exceeds the maximum size of " + DataSize.ofBytes(maxFileSize).toMegabytes() + "MB");
+        }
+    }
+
+    public StoredUpload storeEmployeeDocument(Long employeeId, MultipartFile file) {
+        return store(file, EMPLOYEE_DOCS_DIR + "/" + employeeId);
+    }
+
+    public StoredUpload receiveEmployeeDocument(Long employeeId, InputStream body, String filename, String contentType) {
+        return receive(body, EMPLOYEE_DOCS_DIR + "/" + employeeId, filename, contentType);
     }
 
     public String storeLeaveAttachment(Long employeeId, MultipartFile file) {
-        return store(file, "leave-attachments/" + employeeId);
+        return store(file, LEAVE_ATTACHMENTS_DIR + "/" + employeeId).storedPath();
+    }
+
+    public StoredUpload receiveLeaveAttachment(Long employeeId, InputStream body, String filename, String contentType) {
+        return receive(body, LEAVE_ATTACHMENTS_DIR + "/" + employeeId, filename, contentType);
     }
 
     public String storeLogo(MultipartFile file) {
-        return store(file, "logos");
+        return store(file, LOGOS_DIR).storedPath();
     }
 
     public String storeProfilePhoto(Long employeeId, MultipartFile file) {
-        return store(file, "profile-photos/" + employeeId);
+        return store(file, "profile-photos/" + employeeId).storedPath();
     }
 
-    public String storeMessageAttachment(Long employeeId, MultipartFile file) {
-        return store(file, "message-attachments/" + employeeId);
+    public StoredUpload storeMessageAttachment(Long employeeId, MultipartFile file) {
+        return store(file, MESSAGE_ATTACHMENTS_DIR + "/" + employeeId);
     }
 
-    private String store(MultipartFile file, String subDir) {
+    public StoredUpload receiveMessageAttachment(Long employeeId, InputStream body, String filename, String contentType) {
+        return receive(body, MESSAGE_ATTACHMENTS_DIR + "/" + employeeId, filename, contentType);
+    }
+
+    public void delete(String storedPath) {
+        if (storedPath == null) return;
+        try {
+            blobStore.delete(storedPath);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to delete stored file " + storedPath + ": " + e.getMessage());
+        }
+    }
+
+    // Resumable upload: an empty .part file in the employee's document area, filled by append()
+    public String createEmployeeDocumentPartial(Long employeeId, String filename) {
+        Path dir = baseDir.resolve(EMPLOYEE_DOCS_DIR + "/" + employeeId);
+        Path partial = partialOf(newTarget(dir, filename));
         try {
-            Path dir = baseDir.resolve(subDir);
             Files.createDirectories(dir);
-            String ext = "";
-            String original = file.getOriginalFilename();
-            if (original != null && original.contains(".")) {
-                ext = original.substring(original.lastIndexOf("."));
-            }
-            String filename = UUID.randomUUID() + ext;
-            Path target = dir.resolve(filename);
-            Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
-            return baseDir.relativize(target).toString();
+            Files.createFile(partial);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create upload", e);
+        }
+        return baseDir.relativize(partial).toString();
+    }
+
+    /**
+     * Appends a chunk to a partial file that holds exactly offset bytes and returns the new offset.
+     *
+     * Bytes left behind by an interrupted chunk that was never acknowledged are cut off first. If the
+     * client goes away mid-chunk, what arrived is kept and the upload resumes from there. A chunk
+     * that would run past length is discarded as a whole.
+     */
+    public long append(String partialPath, long offset, long length, InputStream body) {
+        Path partial = baseDir.resolve(partialPath);
+        try (InputStream in = body; FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+            if (tryLock(channel) == null) {
+                throw new ConflictException("Another chunk of this upload is being written");
+            }
+            long size = channel.size();
+            if (size < offset) {
+                throw new ConflictException("Upload data is missing; start a new upload");
+            }
+            if (size > offset) {
+                channel.truncate(offset);
+            }
+            channel.position(offset);
+            long written = offset;
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (true) {
+                int n;
+                try {
+                    n = in.read(buffer.array());
+                } catch (IOException e) {
+                    break;
+                }
+                if (n == -1) break;
+                if (written + n > length) {
+                    channel.truncate(offset);
+                    throw new BadRequestException("Chunk runs past the upload length of " + length + " bytes");
+                }
+                buffer.clear().limit(n);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                written += n;
+            }
+            channel.force(false);
+            return written;
+        } catch (NoSuchFileException e) {
+            throw new ConflictException(PARTIAL_ELSEWHERE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write upload chunk", e);
+        }
+    }
+
+    /**
+     * Hashes and sniffs a complete partial file and stores it under its final name. The local store
+     * renames the file; with a remote store the partial file stays until discardPartial().
+     */
+    public StoredUpload promote(String partialPath, String originalFilename, String contentType) {
+        Path partial = baseDir.resolve(partialPath);
+        Path target = finalOf(partial);
+        String key = baseDir.relativize(target).toString();
+        MessageDigest digest = sha256();
+        ByteArrayOutputStream head = new ByteArrayOutputStream(ContentSniffer.HEAD_BYTES);
+        long size = 0;
+        try {
+            try (InputStream in = Files.newInputStream(partial)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    size += n;
+                    track(buffer, n, digest, head);
+                }
+            }
+            String sniffed = ContentSniffer.sniff(head.toByteArray(), contentType);
+            blobStore.putFile(key, partial, sniffed);
+            return new StoredUpload(key, originalFilename, sniffed, size, HexFormat.of().formatHex(digest.digest()));
+        } catch (NoSuchFileException e) {
+            throw new ConflictException(PARTIAL_ELSEWHERE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to complete upload", e);
+        }
+    }
+
+    // Undoes promote() when the document it was meant for is not saved, so the upload can be completed again
+    public void demote(String storedPath) {
+        Path partial = partialOf(baseDir.resolve(storedPath));
+        try {
+            if (Files.exists(partial)) {
+                // Remote store: the partial file was only copied
+                blobStore.delete(storedPath);
+            } else if (blobStore.localPath(storedPath) != null) {
+                Files.move(blobStore.localPath(storedPath), partial, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to restore partial upload " + storedPath + ": " + e.getMessage());
+        }
+    }
+
+    // After promote() has committed: removes what is left of the partial file
+    public void discardPartial(String partialPath) {
+        deleteQuietly(baseDir.resolve(partialPath));
+    }
+
+    private static Path finalOf(Path partial) {
+        String name = partial.getFileName().toString();
+        if (!name.endsWith(PARTIAL_SUFFIX)) {
+            throw new IllegalArgumentException("Not a partial upload: " + partial);
+        }
+        return partial.resolveSibling(name.substring(0, name.length() - PARTIAL_SUFFIX.length()));
+    }
+
+    private StoredUpload store(MultipartFile file, String subDir) {
+        try {
+            return receive(file.getInputStream(), subDir, file.getOriginalFilename(), file.getContentType());
         } catch (IOException e) {
             throw new IllegalStateException("Failed to store file", e);
         }
     }
-}
 
+    private StoredUpload receive(InputStream body, String subDir, String originalFilename, String contentType) {
+        Path dir = baseDir.resolve(subDir);
+        Path target = newTarget(dir, originalFilename);
+        Path partial = partialOf(target);
+        MessageDigest digest = sha256();
+        ByteArrayOutputStream head = new ByteArrayOutputStream(ContentSniffer.HEAD_BYTES);
+        long size = 0;
+        try (InputStream in = body) {
+            Files.createDirectories(dir);
+            try (OutputStream out = Files.newOutputStream(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    size += n;
+                    if (size > maxFileSize) {
+                        throw new BadRequestException("File exceeds the maximum size of " + DataSize.ofBytes(maxFileSize).toMegabytes() + "MB");
+                    }
+                    track(buffer, n, digest, head);
+                    out.write(buffer, 0, n);
+                }
+            }
+            if (size == 0) {
+                throw new BadRequestException("File is empty");
+            }
+            String key = baseDir.relativize(target).toString();
+            String sniffed = ContentSniffer.sniff(head.toByteArray(), contentType);
+            blobStore.putFile(key, partial, sniffed);
+            return new StoredUpload(key, originalFilename, sniffed, size, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store file", e);
+        } finally {
+            // Already moved by the local store
+            deleteQuietly(partial);
+        }
+    }
+
+    private static Path newTarget(Path dir, String originalFilename) {
+        String ext = "";
+        if (originalFilename != null && originalFilename.contains(".")) {
+            ext = originalFilename.substring(originalFilename.lastIndexOf("."));
+            // Raw uploads take the name from the query string
+            if (!ext.matches("\\.[A-Za-z0-9]{1,10}")) ext = "";
+        }
+        return dir.resolve(UUID.randomUUID() + ext);
+    }
+
+    private static Path partialOf(Path target) {
+        return target.resolveSibling(target.getFileName() + PARTIAL_SUFFIX);
+    }
+
+    private static void track(byte[] buffer, int n, MessageDigest digest, ByteArrayOutputStream head) {
+        if (head.size() < ContentSniffer.HEAD_BYTES) {
+            head.write(buffer, 0, Math.min(n, ContentSniffer.HEAD_BYTES - head.size()));
+        }
+        digest.update(buffer, 0, n);
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Best effort
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.company.hr.service.storage;
+
+// A file written to its final location; contentType is sniffed from the leading bytes where possible
+public record StoredUpload(String storedPath, String originalFilename, String contentType, long size, String sha256) {
+}